@@ -0,0 +1,46 @@
+package org.ThreeDotsSierpinski;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Точка входа для запуска бенчмарков.
+ * Принимает стандартные аргументы JMH; по умолчанию результаты пишутся в target/jmh-result.json,
+ * а профилировщик выделения памяти (-prof gc) включен всегда.
+ */
+public class BenchmarkRunner {
+    private static final String RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include("org\\.ThreeDotsSierpinski\\..*Benchmark");
+        }
+        if (!commandLine.getResult().hasValue()) {
+            builder.result(RESULT_FILE);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .forks(commandLine.getForkCount().orElse(1))
+                .warmupIterations(commandLine.getWarmupIterations().orElse(3))
+                .warmupTime(commandLine.getWarmupTime().orElse(TimeValue.seconds(2)))
+                .measurementIterations(commandLine.getMeasurementIterations().orElse(5))
+                .measurementTime(commandLine.getMeasurementTime().orElse(TimeValue.seconds(2)))
+                .jvmArgsAppend("--enable-preview", "-Djava.awt.headless=true", "-Xmx4g")
+                .build();
+        new Runner(options).run();
+    }
+
+}
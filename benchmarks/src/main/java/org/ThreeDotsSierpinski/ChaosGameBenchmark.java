@@ -0,0 +1,78 @@
+package org.ThreeDotsSierpinski;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Шаг игры хаоса и отрисовка точек на буферном изображении.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ChaosGameBenchmark {
+    private static final int STEPS = 1024;
+
+    private final long[] randomValues = new long[STEPS];
+    private final List<Dot> dots = new ArrayList<>(STEPS);
+    private DotController dotController;
+    private RandomNumberProvider provider;
+
+    @Setup
+    public void setUp() {
+        LoggerConfig.initializeLogger();
+        SplittableRandom random = new SplittableRandom(1);
+        Point point = new Point(DotController.SIZE / 2, DotController.SIZE / 2);
+        for (int i = 0; i < STEPS; i++) {
+            randomValues[i] = random.nextLong(DotController.MIN_RANDOM_VALUE, DotController.MAX_RANDOM_VALUE);
+            point = DotController.calculateNewDotPosition(point, randomValues[i]);
+            dots.add(new Dot(point));
+        }
+        provider = new RandomNumberProvider(new InMemoryRandomBytesSource(1), Integer.MAX_VALUE);
+        dotController = new DotController(provider);
+        dotController.shutdown(); // Таймеры не должны рисовать параллельно с бенчмарком
+    }
+
+    @TearDown
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public Point calculateNewDotPosition() {
+        Point point = new Point(DotController.SIZE / 2, DotController.SIZE / 2);
+        for (long randomValue : randomValues) {
+            point = DotController.calculateNewDotPosition(point, randomValue);
+        }
+        return point;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void drawDots() {
+        dotController.drawDots(dots, Color.BLACK);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void drawSingleDots() {
+        // Так точки рисуются таймером: по одной за вызов
+        for (Dot dot : dots) {
+            dotController.drawDots(List.of(dot), Color.RED);
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.ThreeDotsSierpinski;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Декодирование HEX-ответа QRNG API в массив байтов.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class HexDecodingBenchmark {
+
+    /**
+     * Длина HEX-строки в символах: от обычного ответа API (2 КБ) до 1 МБ.
+     */
+    @Param({"2048", "65536", "1048576"})
+    public int payloadLength;
+
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        byte[] bytes = new byte[payloadLength / 2];
+        new SplittableRandom(1).nextBytes(bytes);
+        payload = HexFormat.of().formatHex(bytes);
+    }
+
+    @Benchmark
+    public byte[] hexStringToByteArray() {
+        return QrngApiSource.hexStringToByteArray(payload);
+    }
+
+}
@@ -0,0 +1,31 @@
+package org.ThreeDotsSierpinski;
+
+import java.util.SplittableRandom;
+
+/**
+ * Источник случайных байтов без сети: отдает фрагменты заранее сгенерированного пула.
+ * Делает бенчмарки провайдера воспроизводимыми и независимыми от QRNG API.
+ */
+public class InMemoryRandomBytesSource implements RandomBytesSource {
+    private static final int POOL_SIZE = 1 << 20;
+
+    private final byte[] pool = new byte[POOL_SIZE];
+    private int position = 0;
+
+    public InMemoryRandomBytesSource(long seed) {
+        new SplittableRandom(seed).nextBytes(pool);
+    }
+
+    @Override
+    public synchronized byte[] fetch(int length) {
+        byte[] result = new byte[length];
+        for (int copied = 0; copied < length; ) {
+            int chunk = Math.min(length - copied, POOL_SIZE - position);
+            System.arraycopy(pool, position, result, copied, chunk);
+            copied += chunk;
+            position = (position + chunk) % POOL_SIZE;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.ThreeDotsSierpinski;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тест Колмогорова-Смирнова на выборках от 10^3 до 10^8 значений.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class KolmogorovSmirnovBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int sampleSize;
+
+    private int[] sample;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(1);
+        sample = new int[sampleSize];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = (int) random.nextLong(DotController.MIN_RANDOM_VALUE, DotController.MAX_RANDOM_VALUE);
+        }
+    }
+
+    @Benchmark
+    public boolean kolmogorovSmirnovTest() {
+        return KolmogorovSmirnovTest.test(sample, 0.05);
+    }
+
+}
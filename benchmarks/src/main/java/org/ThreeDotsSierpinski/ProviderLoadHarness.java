@@ -0,0 +1,226 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон {@link RandomNumberProvider} против локального {@link QrngStandInServer}.
+ * <p>
+ * Потребители запрашивают числа с заданной суммарной частотой. Задержка каждого запроса отсчитывается
+ * от запланированного, а не от фактического момента начала, поэтому очередь запросов, накопившаяся
+ * за время ожидания провайдера, отражается в хвосте распределения (без coordinated omission).
+ * <p>
+ * Параметры передаются в виде {@code --ключ=значение}:
+ * <pre>
+ * --rate=100000          суммарная частота запросов в секунду
+ * --duration=30          длительность прогона в секундах
+ * --consumers=4          количество потоков-потребителей
+ * --latency=150          медиана задержки ответа сервера в миллисекундах
+ * --spread=50            разброс задержки в миллисекундах
+ * --distribution=LOG_NORMAL  FIXED, UNIFORM, EXPONENTIAL или LOG_NORMAL
+ * --errorRate=0.05       доля ответов с ошибкой
+ * --truncationRate=0.01  доля обрезанных ответов
+ * --rateLimit=0          ограничение сервера на запросы в секунду (0 — без ограничения)
+ * --queueSize=2000       емкость очереди провайдера
+ * --batch=1024           количество байтов в одном запросе провайдера к серверу
+ * --retries=3            количество попыток загрузки одной порции
+ * </pre>
+ */
+public class ProviderLoadHarness {
+    private static final long STARVATION_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoggerConfig.initializeLogger();
+        Map<String, String> options = parseArguments(args);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100000"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "30"));
+        int consumers = Integer.parseInt(options.getOrDefault("consumers", "4"));
+        QrngStandInServer.Behavior behavior = new QrngStandInServer.Behavior(
+                QrngStandInServer.LatencyDistribution.valueOf(options.getOrDefault("distribution", "LOG_NORMAL")),
+                Double.parseDouble(options.getOrDefault("latency", "150")),
+                Double.parseDouble(options.getOrDefault("spread", "50")),
+                Double.parseDouble(options.getOrDefault("errorRate", "0.05")),
+                Double.parseDouble(options.getOrDefault("truncationRate", "0.01")),
+                Integer.parseInt(options.getOrDefault("rateLimit", "0")));
+        RandomNumberProvider.Config config = new RandomNumberProvider.Config(
+                Integer.parseInt(options.getOrDefault("queueSize", String.valueOf(RandomNumberProvider.Config.DEFAULT.queueSize()))),
+                Integer.parseInt(options.getOrDefault("batch", String.valueOf(RandomNumberProvider.Config.DEFAULT.batchSize()))),
+                Integer.parseInt(options.getOrDefault("retries", String.valueOf(RandomNumberProvider.Config.DEFAULT.maxRetryAttempts()))));
+
+        try (QrngStandInServer server = new QrngStandInServer(behavior)) {
+            RandomNumberProvider provider = new RandomNumberProvider(new QrngApiSource(server.getApiUrl()), Integer.MAX_VALUE, config);
+            long intervalNanos = (long) (1e9 * consumers / rate);
+            long draws = (long) (rate * durationSeconds / consumers);
+            long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+
+            ExecutorService executor = Executors.newFixedThreadPool(consumers);
+            List<Future<ConsumerResult>> futures = new ArrayList<>();
+            for (int i = 0; i < consumers; i++) {
+                // Потребители сдвинуты по фазе, чтобы суммарный поток запросов был равномерным
+                long offset = intervalNanos * i / consumers;
+                futures.add(executor.submit(() -> consume(provider, start + offset, intervalNanos, draws)));
+            }
+            List<ConsumerResult> results = new ArrayList<>();
+            for (Future<ConsumerResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+            provider.shutdown();
+
+            report(results, elapsed, rate, consumers, behavior, config, server);
+        }
+    }
+
+    private static ConsumerResult consume(RandomNumberProvider provider, long start, long intervalNanos, long draws) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        long failures = 0;
+        long starvationNanos = 0;
+        for (long i = 0; i < draws; i++) {
+            long intended = start + i * intervalNanos;
+            long now = System.nanoTime();
+            if (now < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            try {
+                provider.getNextRandomNumber();
+            } catch (NoSuchElementException e) {
+                failures++;
+            }
+            long latency = System.nanoTime() - intended;
+            latencies.record(latency);
+            if (latency > STARVATION_THRESHOLD_NANOS) {
+                starvationNanos += latency - STARVATION_THRESHOLD_NANOS;
+            }
+        }
+        return new ConsumerResult(latencies, failures, starvationNanos);
+    }
+
+    private static void report(List<ConsumerResult> results, long elapsedNanos, double rate, int consumers,
+                               QrngStandInServer.Behavior behavior, RandomNumberProvider.Config config,
+                               QrngStandInServer server) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        long failures = 0;
+        long starvationNanos = 0;
+        for (ConsumerResult result : results) {
+            latencies.add(result.latencies());
+            failures += result.failures();
+            starvationNanos += result.starvationNanos();
+        }
+        long total = latencies.getCount();
+
+        System.out.printf("Сервер: %s%n", behavior);
+        System.out.printf("Провайдер: %s%n", config);
+        System.out.printf("Целевая частота: %.0f/с, потребителей: %d%n", rate, consumers);
+        System.out.printf("Выполнено запросов: %d за %.2f с (%.0f/с), ошибок: %d%n",
+                total, elapsedNanos / 1e9, total / (elapsedNanos / 1e9), failures);
+        System.out.printf("Задержка, мкс: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                latencies.percentileMicros(0.50), latencies.percentileMicros(0.90), latencies.percentileMicros(0.99),
+                latencies.percentileMicros(0.999), total > 0 ? latencies.getMax() / 1e3 : Double.NaN);
+        System.out.printf("Время голодания (задержка сверх 1 мс): %.2f с суммарно по потребителям%n", starvationNanos / 1e9);
+        System.out.printf("Запросов к серверу: %d, ошибок: %d, обрезанных: %d, отклонено лимитом: %d, выдано байтов: %d%n",
+                server.getRequestCount(), server.getErrorCount(), server.getTruncatedCount(),
+                server.getRateLimitedCount(), server.getBytesServed());
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида --ключ=значение: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private record ConsumerResult(LatencyHistogram latencies, long failures, long starvationNanos) {
+    }
+
+    /**
+     * Гистограмма задержек фиксированного размера: в каждой октаве 64 интервала, поэтому относительная
+     * погрешность процентилей не превышает 1/64, а память не зависит от количества запросов.
+     */
+    private static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 6;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS];
+        private long count;
+        private long max;
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts[index(value)]++;
+            count++;
+            max = Math.max(max, value);
+        }
+
+        void add(LatencyHistogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getMax() {
+            return max;
+        }
+
+        // Значение процентиля в микросекундах: верхняя граница интервала, не больше максимума
+        double percentileMicros(double quantile) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max) / 1e3;
+                }
+            }
+            return max / 1e3;
+        }
+
+        // Значения меньше SUB_BUCKETS хранятся точно, остальные — по 64 интервала на октаву
+        private static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)); // [SUB_BUCKETS, 2 * SUB_BUCKETS)
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket - SUB_BUCKETS;
+        }
+
+        private static long highestValue(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+            return ((subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.ThreeDotsSierpinski;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выдача чисел провайдером, очередь которого пополняется из памяти.
+ * Варианты с несколькими потоками показывают конкуренцию потребителей за общую очередь.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RandomNumberProviderBenchmark {
+
+    private RandomNumberProvider provider;
+
+    @Setup
+    public void setUp() {
+        LoggerConfig.initializeLogger();
+        provider = new RandomNumberProvider(new InMemoryRandomBytesSource(1), Integer.MAX_VALUE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        provider.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int nextRandomNumber() {
+        return provider.getNextRandomNumber();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int nextRandomNumber4Threads() {
+        return provider.getNextRandomNumber();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int nextRandomNumberMaxThreads() {
+        return provider.getNextRandomNumber();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int nextRandomInteger() {
+        return provider.getNextRandomInteger();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int nextRandomInteger4Threads() {
+        return provider.getNextRandomInteger();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int nextRandomIntegerMaxThreads() {
+        return provider.getNextRandomInteger();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextRandomNumberInRange() {
+        return provider.getNextRandomNumberInRange(DotController.MIN_RANDOM_VALUE, DotController.MAX_RANDOM_VALUE);
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.ThreeDotsSierpinski;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Экстракция Тёплица при разных отношениях вход : выход на 64 КБ (последовательно) и 16 МБ (параллельно).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ToeplitzExtractorBenchmark {
+
+    /**
+     * Размеры блоков n:m в битах.
+     */
+    @Param({"1024:512", "1024:256", "2048:1024"})
+    public String blockSizes;
+
+    /**
+     * Размер входа в байтах.
+     */
+    @Param({"65536", "16777216"})
+    public int inputLength;
+
+    private ToeplitzExtractor extractor;
+    private byte[] input;
+
+    @Setup
+    public void setUp() {
+        String[] parts = blockSizes.split(":");
+        int inputBits = Integer.parseInt(parts[0]);
+        int outputBits = Integer.parseInt(parts[1]);
+        SplittableRandom random = new SplittableRandom(1);
+        byte[] seed = new byte[ToeplitzExtractor.seedBytes(inputBits, outputBits)];
+        random.nextBytes(seed);
+        extractor = new ToeplitzExtractor(seed, inputBits, outputBits);
+        input = new byte[inputLength - inputLength % extractor.getInputBlockBytes()];
+        random.nextBytes(input);
+    }
+
+    @Benchmark
+    public byte[] extract() {
+        return extractor.extract(input);
+    }
+
+}
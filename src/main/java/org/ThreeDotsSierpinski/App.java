@@ -2,54 +2,228 @@ package org.ThreeDotsSierpinski;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.logging.Logger;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
+/**
+ * Точка входа приложения.
+ * <p>
+ * Запуск выполняется параллельно: пока поток событий создает и отображает окно, в фоне инициализируются
+ * логгирование, поставщик случайных чисел и контрольная точка отрисовки. Панель создается, когда готовы окно,
+ * поставщик и контрольная точка, а таймеры наполнения запускаются только после появления первых случайных
+ * чисел, поэтому первые такты не ждут источник в потоке событий. Если числа не появились за отведенное время,
+ * таймеры остаются остановленными, на панели отображается сообщение, а ожидание повторяется в фоне.
+ * Время каждой фазы записывается в {@link StartupMetrics}.
+ */
 public class App {
     // Константы для строковых значений
     private static final String APPLICATION_TITLE = "Dot Mover";
     private static final String LOG_APP_STARTED = "Приложение запущено.";
     private static final String LOG_GUI_STARTED = "GUI успешно запущен.";
     private static final String LOG_APP_SHUTTING_DOWN = "Завершение работы приложения.";
+    private static final String LOG_DAEMON_UNAVAILABLE = "Сервис случайных чисел недоступен, используется собственный провайдер.";
+    private static final String LOG_NO_INITIAL_SUPPLY = "Случайные числа не получены за %d с, таймеры наполнения остановлены до их появления.";
+    private static final String LOG_SUPPLY_RECOVERED = "Случайные числа получены, таймеры наполнения запущены.";
+    private static final String LOG_SUPPLY_EXHAUSTED = "Поставщик случайных чисел исчерпан, таймеры наполнения не запускаются.";
+    private static final String ERROR_NO_SUPPLY = "Случайные числа недоступны, ожидание источника...";
+    private static final String LOG_STARTUP_FAILED = "Ошибка при запуске приложения.";
 
     // Константы для параметров JFrame
     private static final int FRAME_CLOSE_OPERATION = JFrame.EXIT_ON_CLOSE;
     private static final int FRAME_STATE = JFrame.MAXIMIZED_BOTH;
     private static final String FRAME_LAYOUT = BorderLayout.CENTER;
 
-    private static final Logger LOGGER = LoggerConfig.getLogger();
+    private static final int INITIAL_SUPPLY_TIMEOUT_SECONDS = 30; // Ожидание первых случайных чисел перед запуском таймеров
+    private static final int SUPPLY_RETRY_INTERVAL_SECONDS = 5; // Пауза между повторными ожиданиями, если загрузки нет
+
+    // Обработчики логов подключаются в фазе LOGGER; записи других фаз до ее завершения выводятся в консоль
 
     public static void main() {
+        StartupMetrics startupMetrics = new StartupMetrics();
+        ExecutorService startupExecutor = Executors.newVirtualThreadPerTaskExecutor(); // Фоновые фазы запуска
+        Executor eventDispatchThread = SwingUtilities::invokeLater;
+
         // Инициализация логгирования
-        LoggerConfig.initializeLogger();
-        LOGGER.info(LOG_APP_STARTED);
+        CompletableFuture<Void> loggerReady = CompletableFuture.runAsync(() -> {
+            startupMetrics.begin(StartupMetrics.Phase.LOGGER);
+            LoggerConfig.initializeLogger();
+            startupMetrics.end(StartupMetrics.Phase.LOGGER);
+            LoggerConfig.getLogger().info(LOG_APP_STARTED);
+            startupMetrics.start();
+        }, startupExecutor);
 
-        // Создание объектов
-        RandomNumberProvider randomNumberProvider = new RandomNumberProvider();
-        DotController dotController = new DotController(randomNumberProvider);
+        // Поставщик случайных чисел и ожидание первых чисел
+        CompletableFuture<RandomNumberSupplier> supplierReady = loggerReady.thenApplyAsync(ignored -> {
+            startupMetrics.begin(StartupMetrics.Phase.SUPPLIER);
+            RandomNumberSupplier supplier = createRandomNumberSupplier();
+            startupMetrics.end(StartupMetrics.Phase.SUPPLIER);
+            return supplier;
+        }, startupExecutor);
+        CompletableFuture<Boolean> supplyReady = supplierReady.thenApplyAsync(supplier -> {
+            startupMetrics.begin(StartupMetrics.Phase.ENTROPY);
+            boolean available = awaitInitialSupply(supplier);
+            if (available) {
+                startupMetrics.end(StartupMetrics.Phase.ENTROPY);
+            }
+            return available;
+        }, startupExecutor);
 
-        // Запуск GUI
+        // Контрольные точки состояния отрисовки
+        CompletableFuture<RenderCheckpoint> checkpointReady = CompletableFuture.supplyAsync(() -> {
+            startupMetrics.begin(StartupMetrics.Phase.CHECKPOINT);
+            return new RenderCheckpoint();
+        }, startupExecutor);
+        CompletableFuture<RenderState> restoredState = checkpointReady.thenApplyAsync(renderCheckpoint -> {
+            RenderState state = renderCheckpoint.restore();
+            startupMetrics.end(StartupMetrics.Phase.CHECKPOINT);
+            return state;
+        }, startupExecutor);
+
+        // Окно отображается сразу, не дожидаясь остальных фаз
+        CompletableFuture<JFrame> frameShown = new CompletableFuture<>();
+        CompletableFuture<DotController> panelReady = new CompletableFuture<>();
         SwingUtilities.invokeLater(() -> {
+            startupMetrics.begin(StartupMetrics.Phase.FRAME);
             JFrame frame = new JFrame(APPLICATION_TITLE); // Создание окна приложения
             frame.setLayout(new BorderLayout()); // Установка менеджера компоновки
-            frame.add(dotController, FRAME_LAYOUT); // Добавление контроллера точек в центр
             frame.setDefaultCloseOperation(FRAME_CLOSE_OPERATION); // Установка операции закрытия по умолчанию
             frame.setExtendedState(FRAME_STATE); // Развертывание окна на весь экран
 
-            // Запуск движения точек
-            dotController.startDotMovement();
-            frame.setVisible(true); // Отображение окна
-            LOGGER.info(LOG_GUI_STARTED);
-
-            // Добавление обработчика закрытия окна для корректного завершения ExecutorService
             frame.addWindowListener(new java.awt.event.WindowAdapter() {
+                @Override
+                public void windowOpened(java.awt.event.WindowEvent windowEvent) {
+                    startupMetrics.end(StartupMetrics.Phase.FRAME);
+                    frameShown.complete(frame);
+                }
+
+                // Корректное завершение уже запущенных компонентов
                 @Override
                 public void windowClosing(java.awt.event.WindowEvent windowEvent) {
-                    LOGGER.info(LOG_APP_SHUTTING_DOWN);
-                    randomNumberProvider.shutdown(); // Корректное завершение пула потоков
+                    LoggerConfig.getLogger().info(LOG_APP_SHUTTING_DOWN);
+                    DotController dotController = panelReady.getNow(null);
+                    if (dotController != null) {
+                        dotController.shutdown(); // Остановка наполнения треугольников
+                        checkpointReady.join().shutdown(dotController); // Запись финальной контрольной точки
+                    }
+                    RandomNumberSupplier supplier = supplierReady.getNow(null);
+                    if (supplier != null) {
+                        supplier.shutdown(); // Корректное завершение пула потоков
+                    }
+                    startupMetrics.shutdown();
+                    startupExecutor.shutdownNow();
                     super.windowClosing(windowEvent);
                 }
             });
+            frame.setVisible(true); // Отображение окна
         });
+
+        // Панель создается в потоке событий, когда готовы окно, поставщик и восстановленное изображение
+        CompletableFuture.allOf(frameShown, supplierReady, restoredState).thenRunAsync(() -> {
+            startupMetrics.begin(StartupMetrics.Phase.PANEL);
+            DotController dotController = new DotController(supplierReady.join(), restoredState.join());
+            JFrame frame = frameShown.join();
+            frame.add(dotController, FRAME_LAYOUT); // Добавление контроллера точек в центр
+            frame.revalidate();
+
+            // Запуск движения точек
+            dotController.startDotMovement();
+            checkpointReady.join().start(dotController);
+            startupMetrics.end(StartupMetrics.Phase.PANEL);
+            LoggerConfig.getLogger().info(LOG_GUI_STARTED);
+            panelReady.complete(dotController);
+        }, eventDispatchThread).exceptionally(App::logStartupFailure);
+
+        // Таймеры наполнения запускаются после появления первых случайных чисел
+        panelReady.thenAcceptBothAsync(supplyReady, (dotController, available) -> {
+            if (available) {
+                startFilling(dotController, startupMetrics);
+                return;
+            }
+            // Без случайных чисел такты блокировали бы поток событий: таймеры ждут, пока ожидание не завершится успешно
+            LoggerConfig.getLogger().warning(String.format(LOG_NO_INITIAL_SUPPLY, INITIAL_SUPPLY_TIMEOUT_SECONDS));
+            dotController.setErrorMessage(ERROR_NO_SUPPLY);
+            CompletableFuture.supplyAsync(() -> retryInitialSupply(supplierReady.join()), startupExecutor)
+                    .thenAcceptAsync(recovered -> {
+                        if (recovered) {
+                            startupMetrics.end(StartupMetrics.Phase.ENTROPY);
+                            LoggerConfig.getLogger().info(LOG_SUPPLY_RECOVERED);
+                            dotController.setErrorMessage(null);
+                            startFilling(dotController, startupMetrics);
+                        }
+                    }, eventDispatchThread)
+                    .exceptionally(App::logStartupFailure);
+        }, eventDispatchThread).exceptionally(App::logStartupFailure);
+    }
+
+    // Запускает таймеры наполнения и отсчет времени до первой точки (в потоке событий)
+    private static void startFilling(DotController dotController, StartupMetrics startupMetrics) {
+        startupMetrics.begin(StartupMetrics.Phase.FIRST_DOT);
+        dotController.getFirstDotPainted().thenRun(() -> {
+            startupMetrics.end(StartupMetrics.Phase.FIRST_DOT);
+            startupMetrics.report();
+        });
+        dotController.startFilling();
+    }
+
+    /**
+     * Повторяет ожидание первых случайных чисел, пока они не появятся. Загрузку повторяет сам поставщик;
+     * если ожидание завершилось сразу (загрузка не идет), следующая попытка выполняется после паузы.
+     *
+     * @return {@code true}, если числа появились; {@code false}, если поставщик исчерпан или ожидание прервано
+     * (при закрытии окна).
+     */
+    private static boolean retryInitialSupply(RandomNumberSupplier supplier) {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (supplier.getRemainingSupply() <= 0) {
+                LoggerConfig.getLogger().warning(LOG_SUPPLY_EXHAUSTED);
+                return false;
+            }
+            if (awaitInitialSupply(supplier)) {
+                return true;
+            }
+            try {
+                TimeUnit.SECONDS.sleep(SUPPLY_RETRY_INTERVAL_SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return false;
+    }
+
+    // Ожидает первые случайные числа, чтобы первые такты таймеров не блокировали поток событий
+    private static boolean awaitInitialSupply(RandomNumberSupplier supplier) {
+        try {
+            return supplier.awaitSupply(INITIAL_SUPPLY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Void logStartupFailure(Throwable throwable) {
+        LoggerConfig.getLogger().log(Level.SEVERE, LOG_STARTUP_FAILED, throwable);
+        return null;
+    }
+
+    /**
+     * Подключается к общему пулу {@link RandomnessDaemon}, если задано свойство {@value RandomnessDaemon#ADDRESS_PROPERTY},
+     * иначе создает собственный провайдер.
+     */
+    private static RandomNumberSupplier createRandomNumberSupplier() {
+        String daemonAddress = System.getProperty(RandomnessDaemon.ADDRESS_PROPERTY);
+        if (daemonAddress != null) {
+            try {
+                return new RandomnessClient(RandomnessDaemon.parseAddress(daemonAddress));
+            } catch (IOException e) {
+                LoggerConfig.getLogger().log(Level.WARNING, LOG_DAEMON_UNAVAILABLE, e);
+            }
+        }
+        return new RandomNumberProvider();
     }
 
 }
@@ -0,0 +1,142 @@
+package org.ThreeDotsSierpinski;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Асинхронный обработчик логов: записи помещаются в ограниченный буфер и передаются
+ * вложенному обработчику отдельным потоком.
+ * <p>
+ * Поток, который пишет в лог, никогда не ждет ввода-вывода: если буфер заполнен,
+ * запись отбрасывается, а счетчик отброшенных записей увеличивается.
+ */
+public class AsyncLogHandler extends Handler implements AsyncLogHandlerMBean {
+    private static final int BATCH_SIZE = 256; // Максимальное количество записей, передаваемых за один проход
+    private static final long POLL_TIMEOUT_MILLIS = 100; // Интервал проверки признака закрытия
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000; // Время ожидания записи оставшихся записей при закрытии
+
+    private final Handler delegate; // Обработчик, выполняющий фактическую запись
+    private final BlockingQueue<LogRecord> buffer;
+    private final int capacity;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean closed = false;
+
+    /**
+     * @param delegate обработчик, в который записи передаются из фонового потока.
+     * @param capacity емкость буфера.
+     */
+    public AsyncLogHandler(Handler delegate, int capacity) {
+        this.delegate = delegate;
+        this.capacity = capacity;
+        buffer = new ArrayBlockingQueue<>(capacity);
+        writerThread = new Thread(this::drainLoop, "async-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // Источник вызова определяется лениво по стеку, поэтому фиксируем его в потоке вызывающего
+        record.getSourceClassName();
+        if (!buffer.offer(record)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    // Цикл фонового потока: забирает записи пачками и передает их вложенному обработчику
+    private void drainLoop() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || !buffer.isEmpty()) {
+            try {
+                LogRecord first = buffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, BATCH_SIZE - 1);
+                publishBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Записи, не принятые вложенным обработчиком из-за ошибки, учитываются как отброшенные
+    private void publishBatch(List<LogRecord> batch) {
+        int delivered = 0;
+        try {
+            for (LogRecord record : batch) {
+                delegate.publish(record);
+                delivered++;
+            }
+            delegate.flush();
+        } catch (RuntimeException e) {
+            droppedCount.addAndGet(batch.size() - delivered);
+            reportError(null, e, ErrorManager.WRITE_FAILURE);
+        } finally {
+            publishedCount.addAndGet(delivered);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    /**
+     * Прекращает прием записей, дожидается записи накопленных и закрывает вложенный обработчик.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<LogRecord> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            publishBatch(remaining);
+        }
+        delegate.close();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return buffer.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+}
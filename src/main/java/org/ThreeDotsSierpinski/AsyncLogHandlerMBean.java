@@ -0,0 +1,28 @@
+package org.ThreeDotsSierpinski;
+
+/**
+ * JMX-интерфейс асинхронного обработчика логов.
+ */
+public interface AsyncLogHandlerMBean {
+
+    /**
+     * @return количество записей, отброшенных из-за переполнения буфера.
+     */
+    long getDroppedCount();
+
+    /**
+     * @return количество записей, переданных в файловый обработчик.
+     */
+    long getPublishedCount();
+
+    /**
+     * @return количество записей, ожидающих записи.
+     */
+    int getQueueSize();
+
+    /**
+     * @return емкость кольцевого буфера.
+     */
+    int getCapacity();
+
+}
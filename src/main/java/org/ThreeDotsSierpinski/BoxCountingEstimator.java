@@ -0,0 +1,219 @@
+package org.ThreeDotsSierpinski;
+
+import java.util.Arrays;
+
+/**
+ * Инкрементальная оценка фрактальной (box-counting) размерности множества точек.
+ * <p>
+ * Для каждого уровня L хранится битовая карта занятости сетки 2^L x 2^L. Новая точка отмечается,
+ * начиная с самого мелкого уровня; как только бит уже установлен, более крупные уровни гарантированно
+ * заняты, и обход прекращается. Поэтому добавление точки стоит O(levels) в худшем случае и O(1) в среднем.
+ * Размерность оценивается наклоном прямой log N(L) от L · log 2 методом наименьших квадратов.
+ * Состояние оценки сохраняется в контрольной точке через {@link #snapshot()}: более крупные уровни
+ * однозначно восстанавливаются по самому мелкому.
+ */
+public class BoxCountingEstimator {
+
+    /**
+     * Снимок состояния оценки.
+     *
+     * @param pointCount       количество учтенных точек
+     * @param previousEstimate оценка на момент предыдущего интервала
+     * @param rateOfChange     изменение оценки за последний интервал
+     * @param cells            битовая карта самого мелкого уровня
+     */
+    public record Snapshot(long pointCount, double previousEstimate, double rateOfChange, long[] cells) {
+    }
+
+    /**
+     * Теоретическая размерность треугольника Серпинского: log 3 / log 2.
+     */
+    public static final double SIERPINSKI_DIMENSION = Math.log(3) / Math.log(2);
+
+    private static final int MIN_FIT_LEVEL = 2; // Самый крупный уровень, участвующий в оценке
+    private static final int FINE_LEVELS_EXCLUDED = 2; // Мелкие уровни, искаженные целочисленными координатами
+    private static final int EVALUATION_INTERVAL = 1000; // Количество точек между оценками скорости изменения
+
+    private final int size; // Размер области в исходных координатах
+    private final int maxLevel; // Самый мелкий уровень: сетка 2^maxLevel покрывает область попиксельно
+    private final long[][] bitmaps; // Битовые карты занятости по уровням
+    private final int[] occupiedBoxes; // Количество занятых ячеек на каждом уровне
+    private long pointCount = 0;
+
+    private double previousEstimate = Double.NaN; // Оценка на момент предыдущего интервала
+    private double rateOfChange = Double.NaN; // Изменение оценки за последний интервал
+
+    /**
+     * @param size размер квадратной области: координаты точек лежат в [0, size].
+     */
+    public BoxCountingEstimator(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер области должен быть положительным: " + size);
+        }
+        this.size = size;
+        maxLevel = maxLevel(size);
+        bitmaps = new long[maxLevel + 1][];
+        for (int level = 0; level <= maxLevel; level++) {
+            bitmaps[level] = new long[bitmapWords(level)];
+        }
+        occupiedBoxes = new int[maxLevel + 1];
+    }
+
+    /**
+     * @param size размер квадратной области.
+     * @return количество слов битовой карты самого мелкого уровня в {@link Snapshot#cells()}.
+     */
+    static int snapshotWords(int size) {
+        return bitmapWords(maxLevel(size));
+    }
+
+    // Самый мелкий уровень: 2^maxLevel > size
+    private static int maxLevel(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size);
+    }
+
+    private static int bitmapWords(int level) {
+        long cells = 1L << (2 * level);
+        return (int) ((cells + 63) / 64);
+    }
+
+    /**
+     * Учитывает новую точку. Точки за пределами области игнорируются.
+     *
+     * @param x координата X в диапазоне [0, size].
+     * @param y координата Y в диапазоне [0, size].
+     */
+    public synchronized void record(int x, int y) {
+        if (x < 0 || y < 0 || x > size || y > size) {
+            return;
+        }
+        // Приведение к сетке 2^maxLevel
+        int gridX = (int) ((long) x * (1 << maxLevel) / (size + 1));
+        int gridY = (int) ((long) y * (1 << maxLevel) / (size + 1));
+        markOccupied(gridX, gridY);
+        pointCount++;
+        if (pointCount % EVALUATION_INTERVAL == 0) {
+            double estimate = estimate();
+            rateOfChange = estimate - previousEstimate;
+            previousEstimate = estimate;
+        }
+    }
+
+    // Отмечает ячейку сетки 2^maxLevel и содержащие ее ячейки более крупных уровней
+    private void markOccupied(int gridX, int gridY) {
+        for (int level = maxLevel; level >= 0; level--) {
+            int shift = maxLevel - level;
+            int cell = ((gridY >>> shift) << level) | (gridX >>> shift);
+            long[] bitmap = bitmaps[level];
+            long mask = 1L << cell;
+            long word = bitmap[cell >>> 6];
+            if ((word & mask) != 0) {
+                break; // Ячейка и все более крупные уже заняты
+            }
+            bitmap[cell >>> 6] = word | mask;
+            occupiedBoxes[level]++;
+        }
+    }
+
+    /**
+     * @return снимок состояния оценки для контрольной точки.
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(pointCount, previousEstimate, rateOfChange, bitmaps[maxLevel].clone());
+    }
+
+    /**
+     * Заменяет состояние оценки сохраненным снимком.
+     *
+     * @param snapshot снимок, полученный {@link #snapshot()} для области того же размера.
+     * @throws IllegalArgumentException если снимок не соответствует размеру области.
+     */
+    public synchronized void restore(Snapshot snapshot) {
+        long[] cells = snapshot.cells();
+        if (cells.length != bitmaps[maxLevel].length || snapshot.pointCount() < 0) {
+            throw new IllegalArgumentException("Снимок не соответствует размеру области: " + cells.length);
+        }
+        for (long[] bitmap : bitmaps) {
+            Arrays.fill(bitmap, 0L);
+        }
+        Arrays.fill(occupiedBoxes, 0);
+        int gridMask = (1 << maxLevel) - 1;
+        for (int i = 0; i < cells.length; i++) {
+            for (long word = cells[i]; word != 0; word &= word - 1) {
+                int cell = (i << 6) | Long.numberOfTrailingZeros(word);
+                markOccupied(cell & gridMask, cell >>> maxLevel);
+            }
+        }
+        pointCount = snapshot.pointCount();
+        previousEstimate = snapshot.previousEstimate();
+        rateOfChange = snapshot.rateOfChange();
+    }
+
+    /**
+     * @return текущая оценка размерности или {@link Double#NaN}, если точек недостаточно.
+     */
+    public synchronized double getDimension() {
+        return estimate();
+    }
+
+    /**
+     * @return изменение оценки за последние 1000 точек или {@link Double#NaN}, если данных мало.
+     */
+    public synchronized double getRateOfChange() {
+        return rateOfChange;
+    }
+
+    /**
+     * @return количество учтенных точек.
+     */
+    public synchronized long getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Проверяет сходимость оценки: за последний интервал новые точки заняли новые ячейки,
+     * и оценка изменилась меньше чем на tolerance. Оценка, которая не меняется из-за того,
+     * что ячейки уровней оценки уже заняты ({@link #isSaturated()}), сходящейся не считается.
+     *
+     * @param tolerance допустимое изменение оценки за 1000 точек.
+     * @return {@code true}, если оценка стабилизировалась.
+     */
+    public synchronized boolean isConverged(double tolerance) {
+        return !Double.isNaN(rateOfChange) && rateOfChange != 0 && Math.abs(rateOfChange) < tolerance;
+    }
+
+    /**
+     * @return {@code true}, если за последний интервал ни одна точка не заняла новую ячейку уровней оценки:
+     * оценка достигла предела разрешения сетки и больше не изменится.
+     */
+    public synchronized boolean isSaturated() {
+        return rateOfChange == 0;
+    }
+
+    // Наклон log N(L) по L · log 2 методом наименьших квадратов
+    private double estimate() {
+        int maxFitLevel = maxLevel - FINE_LEVELS_EXCLUDED;
+        double sumX = 0;
+        double sumY = 0;
+        double sumXX = 0;
+        double sumXY = 0;
+        int levels = 0;
+        for (int level = MIN_FIT_LEVEL; level <= maxFitLevel; level++) {
+            if (occupiedBoxes[level] == 0) {
+                continue;
+            }
+            double x = level * Math.log(2);
+            double y = Math.log(occupiedBoxes[level]);
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+            levels++;
+        }
+        if (levels < 2) {
+            return Double.NaN;
+        }
+        return (levels * sumXY - sumX * sumY) / (levels * sumXX - sumX * sumX);
+    }
+
+}
@@ -0,0 +1,182 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Файл плотности одного рабочего процесса распределенной отрисовки.
+ * <p>
+ * Формат: заголовок фиксированного размера (идентификатор задания, границы среза энтропии,
+ * индекс следующей выборки, текущая точка блуждания, признак досрочной остановки по сходимости), затем счетчики попаданий в каждый пиксель
+ * области (SIZE + 1) x (SIZE + 1). Файл всегда записывается целиком во временный файл и атомарно
+ * переименовывается, поэтому на диске находится либо предыдущее, либо новое согласованное состояние:
+ * счетчики всегда соответствуют ровно выборкам до {@code nextIndex}.
+ */
+public class DensityShard {
+
+    /**
+     * Ширина и высота сетки плотности: координаты точек лежат в [0, SIZE].
+     */
+    public static final int WIDTH = DotController.SIZE + 1;
+
+    // Константы формата файла
+    private static final int MAGIC = 0x51534844; // "QSHD"
+    private static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_WIDTH = 8;
+    private static final int OFFSET_JOB_ID = 16;
+    private static final int OFFSET_SLICE_START = 24;
+    private static final int OFFSET_SLICE_END = 32;
+    private static final int OFFSET_NEXT_INDEX = 40;
+    private static final int OFFSET_POINT_X = 48;
+    private static final int OFFSET_POINT_Y = 52;
+    private static final int OFFSET_CONVERGED = 56;
+    static final long FILE_SIZE = HEADER_SIZE + (long) WIDTH * WIDTH * Integer.BYTES;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    final long jobId; // Идентификатор задания: параметры, от которых зависит содержимое среза
+    final long sliceStart; // Первая выборка среза (включительно)
+    final long sliceEnd; // Последняя выборка среза (не включительно)
+    long nextIndex; // Следующая необработанная выборка
+    int pointX; // Текущая точка блуждания
+    int pointY;
+    boolean converged; // Срез остановлен досрочно: оценка размерности стабилизировалась
+    final int[] counts; // Счетчики попаданий, построчно
+
+    DensityShard(long jobId, long sliceStart, long sliceEnd) {
+        this.jobId = jobId;
+        this.sliceStart = sliceStart;
+        this.sliceEnd = sliceEnd;
+        nextIndex = sliceStart;
+        pointX = DotController.SIZE / 2;
+        pointY = DotController.SIZE / 2;
+        counts = new int[WIDTH * WIDTH];
+    }
+
+    /**
+     * @return {@code true}, если все выборки среза обработаны или срез остановлен по сходимости.
+     */
+    boolean isComplete() {
+        return nextIndex >= sliceEnd || converged;
+    }
+
+    // Срез по заголовку обработан полностью или остановлен по сходимости
+    private static boolean isComplete(ByteBuffer header, long sliceEnd) {
+        return header.getLong(OFFSET_NEXT_INDEX) >= sliceEnd || header.getInt(OFFSET_CONVERGED) != 0;
+    }
+
+    /**
+     * Загружает состояние рабочего процесса.
+     *
+     * @return состояние или {@code null}, если файла нет или он относится к другому заданию или срезу.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    static DensityShard load(Path path, long jobId, long sliceStart, long sliceEnd) throws IOException {
+        if (!Files.exists(path) || Files.size(path) != FILE_SIZE) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (!matches(buffer, jobId, sliceStart, sliceEnd)) {
+                return null;
+            }
+            DensityShard shard = new DensityShard(jobId, sliceStart, sliceEnd);
+            shard.nextIndex = buffer.getLong(OFFSET_NEXT_INDEX);
+            shard.pointX = buffer.getInt(OFFSET_POINT_X);
+            shard.pointY = buffer.getInt(OFFSET_POINT_Y);
+            shard.converged = buffer.getInt(OFFSET_CONVERGED) != 0;
+            buffer.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(shard.counts);
+            return shard;
+        }
+    }
+
+    // Заголовок относится к этому формату, заданию и срезу
+    private static boolean matches(ByteBuffer header, long jobId, long sliceStart, long sliceEnd) {
+        return header.getInt(OFFSET_MAGIC) == MAGIC && header.getInt(OFFSET_VERSION) == VERSION
+                && header.getInt(OFFSET_WIDTH) == WIDTH && header.getLong(OFFSET_JOB_ID) == jobId
+                && header.getLong(OFFSET_SLICE_START) == sliceStart && header.getLong(OFFSET_SLICE_END) == sliceEnd;
+    }
+
+    /**
+     * Атомарно сохраняет состояние: запись во временный файл и переименование.
+     *
+     * @throws IOException если файл не удалось записать.
+     */
+    void save(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(OFFSET_MAGIC, MAGIC);
+            buffer.putInt(OFFSET_VERSION, VERSION);
+            buffer.putInt(OFFSET_WIDTH, WIDTH);
+            buffer.putLong(OFFSET_JOB_ID, jobId);
+            buffer.putLong(OFFSET_SLICE_START, sliceStart);
+            buffer.putLong(OFFSET_SLICE_END, sliceEnd);
+            buffer.putLong(OFFSET_NEXT_INDEX, nextIndex);
+            buffer.putInt(OFFSET_POINT_X, pointX);
+            buffer.putInt(OFFSET_POINT_Y, pointY);
+            buffer.putInt(OFFSET_CONVERGED, converged ? 1 : 0);
+            buffer.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(counts);
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Отображает счетчики завершенного файла плотности в память только для чтения.
+     *
+     * @return буфер счетчиков (WIDTH * WIDTH значений, построчно).
+     * @throws IOException если файл не удалось открыть, его формат неверен, он относится к другому
+     *                     заданию или срезу либо срез обработан не полностью.
+     */
+    static IntBuffer mapCounts(Path path, long jobId, long sliceStart, long sliceEnd) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IOException("Некорректный размер файла плотности: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (!matches(buffer, jobId, sliceStart, sliceEnd)) {
+                throw new IOException("Файл плотности относится к другому заданию или срезу: " + path);
+            }
+            if (!isComplete(buffer, sliceEnd)) {
+                throw new IOException("Срез файла плотности обработан не полностью: " + path);
+            }
+            // Отображение остается действительным после закрытия канала
+            return buffer.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+    }
+
+    /**
+     * Проверяет только заголовок, не читая счетчики.
+     *
+     * @return {@code true}, если файл плотности относится к указанному заданию и срезу
+     * и содержит все выборки среза или срез остановлен по сходимости.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    static boolean isComplete(Path path, long jobId, long sliceStart, long sliceEnd) throws IOException {
+        if (!Files.exists(path) || Files.size(path) != FILE_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return matches(header, jobId, sliceStart, sliceEnd) && isComplete(header, sliceEnd);
+        }
+    }
+
+}
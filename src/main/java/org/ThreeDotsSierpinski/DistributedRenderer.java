@@ -0,0 +1,179 @@
+package org.ThreeDotsSierpinski;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Координатор распределенной отрисовки: запускает рабочие процессы {@link RenderWorker} в отдельных JVM,
+ * перезапускает упавшие и сводит их файлы плотности в одно изображение.
+ * <p>
+ * Рабочие процессы не обмениваются данными: каждый обрабатывает свой срез энтропии задания и пишет
+ * собственный файл плотности и собственный файл лога в каталоге задания. Повторный запуск координатора
+ * с теми же параметрами продолжает прерванное задание; завершенные срезы не пересчитываются. Файлы плотности,
+ * оставшиеся в каталоге от задания с другими параметрами, пересчитываются и не попадают в сведение.
+ */
+public class DistributedRenderer {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    // Строковые константы
+    private static final String LOG_JOB_STARTED = "Задание %s: %d выборок, %d рабочих процессов.";
+    private static final String LOG_WORKER_SKIPPED = "Срез рабочего процесса %d уже обработан.";
+    private static final String LOG_WORKER_FAILED = "Рабочий процесс %d завершился с кодом %d, перезапуск %d из %d.";
+    private static final String LOG_MERGED = "Файлы плотности сведены за %d мс, изображение записано в %s.";
+    private static final String WORKER_GAVE_UP = "Рабочий процесс %d не завершил срез после %d перезапусков.";
+    private static final String ERROR_INTERRUPTED = "Ожидание рабочих процессов прервано.";
+
+    private static final int MAX_RESTARTS = 3; // Количество перезапусков одного рабочего процесса
+    private static final String DEFAULT_OUTPUT = "render.png";
+    private static final String IMAGE_FORMAT = "png";
+
+    private DistributedRenderer() {
+    }
+
+    /**
+     * Запускает рабочие процессы и дожидается обработки всех срезов.
+     *
+     * @param job параметры задания.
+     * @throws IOException если рабочий процесс не удалось запустить или он не завершил срез.
+     * @throws InterruptedException если ожидание рабочих процессов прервано.
+     */
+    public static void render(RenderJob job) throws IOException, InterruptedException {
+        Files.createDirectories(job.directory());
+        LOGGER.info(String.format(LOG_JOB_STARTED, job.directory(), job.draws(), job.workers()));
+
+        Process[] processes = new Process[job.workers()];
+        int[] restarts = new int[job.workers()];
+        for (int worker = 0; worker < job.workers(); worker++) {
+            if (isShardComplete(job, worker)) {
+                LOGGER.info(String.format(LOG_WORKER_SKIPPED, worker));
+            } else {
+                processes[worker] = startWorker(job, worker);
+            }
+        }
+
+        for (int worker = 0; worker < job.workers(); worker++) {
+            while (processes[worker] != null) {
+                int exitCode = processes[worker].waitFor();
+                if (exitCode == 0 && isShardComplete(job, worker)) {
+                    processes[worker] = null;
+                } else if (restarts[worker] < MAX_RESTARTS) {
+                    restarts[worker]++;
+                    LOGGER.warning(String.format(LOG_WORKER_FAILED, worker, exitCode, restarts[worker], MAX_RESTARTS));
+                    processes[worker] = startWorker(job, worker);
+                } else {
+                    throw new IOException(String.format(WORKER_GAVE_UP, worker, MAX_RESTARTS));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, если файл плотности рабочего процесса относится к этому заданию и срез обработан.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    static boolean isShardComplete(RenderJob job, int worker) throws IOException {
+        return DensityShard.isComplete(job.shardPath(worker), job.id(), job.sliceStart(worker), job.sliceEnd(worker));
+    }
+
+    /**
+     * Запускает рабочий процесс в отдельной JVM с тем же classpath, что и у координатора.
+     */
+    private static Process startWorker(RenderJob job, int worker) throws IOException {
+        String javaHome = System.getProperty("java.home");
+        String java = ProcessHandle.current().info().command()
+                .orElse(Path.of(javaHome, "bin", "java").toString());
+        List<String> command = new ArrayList<>(List.of(
+                java,
+                "--enable-preview",
+                "-Djava.awt.headless=true",
+                "-D" + LoggerConfig.LOG_FILE_PROPERTY + "=" + job.logPath(worker).toAbsolutePath(),
+                "-cp", System.getProperty("java.class.path"),
+                RenderWorker.class.getName()));
+        command.addAll(job.toArguments());
+        command.add("--worker=" + worker);
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    /**
+     * Суммирует счетчики файлов плотности задания. Файлы отображаются в память, строки сетки
+     * обрабатываются параллельно.
+     *
+     * @param job параметры задания.
+     * @return суммарная плотность (WIDTH * WIDTH значений, построчно).
+     * @throws IOException если файл не удалось открыть, он относится к другому заданию или срез не обработан.
+     */
+    static long[] merge(RenderJob job) throws IOException {
+        long jobId = job.id();
+        List<IntBuffer> buffers = new ArrayList<>(job.workers());
+        for (int worker = 0; worker < job.workers(); worker++) {
+            buffers.add(DensityShard.mapCounts(job.shardPath(worker), jobId, job.sliceStart(worker), job.sliceEnd(worker)));
+        }
+        int width = DensityShard.WIDTH;
+        long[] density = new long[width * width];
+        IntStream.range(0, width).parallel().forEach(row -> {
+            int from = row * width;
+            for (IntBuffer buffer : buffers) {
+                for (int i = from; i < from + width; i++) {
+                    density[i] += Integer.toUnsignedLong(buffer.get(i));
+                }
+            }
+        });
+        return density;
+    }
+
+    /**
+     * Строит изображение в оттенках серого: яркость пропорциональна логарифму плотности,
+     * чтобы мелкие уровни треугольника оставались видимыми рядом с плотными вершинами.
+     *
+     * @param density суммарная плотность.
+     * @return изображение WIDTH x WIDTH.
+     */
+    static BufferedImage toImage(long[] density) {
+        int width = DensityShard.WIDTH;
+        long max = 1;
+        for (long value : density) {
+            max = Math.max(max, value);
+        }
+        double scale = 255.0 / Math.log1p(max);
+        BufferedImage image = new BufferedImage(width, width, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        IntStream.range(0, pixels.length).parallel()
+                .forEach(i -> pixels[i] = (byte) Math.round(Math.log1p(density[i]) * scale));
+        return image;
+    }
+
+    /**
+     * Запускает задание: параметры {@link RenderJob#parse} и {@code --output=файл.png}.
+     */
+    public static void main(String[] args) {
+        LoggerConfig.initializeLogger();
+        Map<String, String> arguments = RenderJob.parseArguments(args);
+        RenderJob job = RenderJob.parse(arguments);
+        Path output = Path.of(arguments.getOrDefault("output", job.directory().resolve(DEFAULT_OUTPUT).toString()));
+        try {
+            render(job);
+            long started = System.nanoTime();
+            ImageIO.write(toImage(merge(job)), IMAGE_FORMAT, output.toFile());
+            LOGGER.info(String.format(LOG_MERGED, (System.nanoTime() - started) / 1_000_000, output.toAbsolutePath()));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.SEVERE, ERROR_INTERRUPTED, e);
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,285 @@
+package org.ThreeDotsSierpinski;
+
+/**
+ * Функции распределений, необходимые для вычисления p-значений статистических тестов.
+ */
+public final class Distributions {
+
+    // Коэффициенты аппроксимации Ланцоша для логарифма гамма-функции
+    private static final double[] LANCZOS = {
+            76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5
+    };
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final double EPSILON = 1e-15;
+    private static final double TINY = 1e-300;
+
+    /**
+     * Максимальный размер матрицы в точном алгоритме Марсальи-Цанга-Ванга.
+     * Для больших n·D используется асимптотическое приближение.
+     */
+    private static final int MAX_EXACT_MATRIX_SIZE = 121;
+
+    private Distributions() {
+    }
+
+    /**
+     * Функция выживания распределения Колмогорова: Q(λ) = 2 Σ (-1)^(k-1) exp(-2 k² λ²).
+     *
+     * @param lambda аргумент λ.
+     * @return значение Q(λ) в диапазоне [0, 1].
+     */
+    public static double kolmogorovSurvival(double lambda) {
+        if (lambda < 0.2) {
+            return 1.0; // Ряд сходится медленно, а значение практически равно 1
+        }
+        double sum = 0.0;
+        double sign = 1.0;
+        for (int k = 1; k <= 100; k++) {
+            double term = sign * Math.exp(-2.0 * k * k * lambda * lambda);
+            sum += term;
+            if (Math.abs(term) < 1e-12) {
+                break;
+            }
+            sign = -sign;
+        }
+        return Math.max(0.0, Math.min(1.0, 2.0 * sum));
+    }
+
+    /**
+     * Асимптотическое p-значение статистики Колмогорова-Смирнова с поправкой Стивенса.
+     *
+     * @param d статистика D.
+     * @param n размер выборки.
+     * @return P(D_n ≥ d).
+     */
+    public static double kolmogorovSmirnovAsymptoticPValue(double d, long n) {
+        if (n <= 0) {
+            return 1.0;
+        }
+        double sqrtN = Math.sqrt(n);
+        return kolmogorovSurvival((sqrtN + 0.12 + 0.11 / sqrtN) * d);
+    }
+
+    /**
+     * p-значение статистики Колмогорова-Смирнова. Для небольших n·D используется точный
+     * алгоритм Марсальи-Цанга-Ванга, иначе — асимптотическое приближение.
+     *
+     * @param d статистика D.
+     * @param n размер выборки.
+     * @return P(D_n ≥ d).
+     */
+    public static double kolmogorovSmirnovPValue(double d, long n) {
+        if (n <= 0 || d <= 0.0) {
+            return 1.0;
+        }
+        if (d >= 1.0) {
+            return 0.0;
+        }
+        if (n <= Integer.MAX_VALUE && 2 * ((long) (n * d) + 1) - 1 <= MAX_EXACT_MATRIX_SIZE) {
+            return Math.max(0.0, Math.min(1.0, 1.0 - kolmogorovSmirnovExactCdf((int) n, d)));
+        }
+        return kolmogorovSmirnovAsymptoticPValue(d, n);
+    }
+
+    /**
+     * Точная функция распределения P(D_n &lt; d) по алгоритму Марсальи-Цанга-Ванга (2003).
+     */
+    private static double kolmogorovSmirnovExactCdf(int n, double d) {
+        double s = d * d * n;
+        if (s > 7.24 || (s > 3.76 && n > 99)) {
+            return 1.0 - 2.0 * Math.exp(-(2.000071 + 0.331 / Math.sqrt(n) + 1.409 / n) * s);
+        }
+        int k = (int) (n * d) + 1;
+        int m = 2 * k - 1;
+        double h = k - n * d;
+        double[] matrix = new double[m * m];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                matrix[i * m + j] = i - j + 1 < 0 ? 0.0 : 1.0;
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            matrix[i * m] -= Math.pow(h, i + 1);
+            matrix[(m - 1) * m + i] -= Math.pow(h, m - i);
+        }
+        matrix[(m - 1) * m] += 2 * h - 1 > 0 ? Math.pow(2 * h - 1, m) : 0.0;
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                if (i - j + 1 > 0) {
+                    for (int g = 1; g <= i - j + 1; g++) {
+                        matrix[i * m + j] /= g;
+                    }
+                }
+            }
+        }
+        int[] exponent = new int[1];
+        double[] power = matrixPower(matrix, 0, m, n, exponent);
+        s = power[(k - 1) * m + k - 1];
+        for (int i = 1; i <= n; i++) {
+            s = s * i / n;
+            if (s < 1e-140) {
+                s *= 1e140;
+                exponent[0] -= 140;
+            }
+        }
+        return s * Math.pow(10.0, exponent[0]);
+    }
+
+    // Возведение матрицы в степень с отслеживанием десятичного порядка для избежания переполнения
+    private static double[] matrixPower(double[] matrix, int matrixExponent, int m, int n, int[] exponent) {
+        if (n == 1) {
+            exponent[0] = matrixExponent;
+            return matrix.clone();
+        }
+        double[] half = matrixPower(matrix, matrixExponent, m, n / 2, exponent);
+        double[] result = matrixMultiply(half, half, m);
+        int resultExponent = 2 * exponent[0];
+        if (n % 2 == 1) {
+            result = matrixMultiply(matrix, result, m);
+            resultExponent += matrixExponent;
+        }
+        if (result[(m / 2) * m + m / 2] > 1e140) {
+            for (int i = 0; i < m * m; i++) {
+                result[i] *= 1e-140;
+            }
+            resultExponent += 140;
+        }
+        exponent[0] = resultExponent;
+        return result;
+    }
+
+    private static double[] matrixMultiply(double[] a, double[] b, int m) {
+        double[] c = new double[m * m];
+        for (int i = 0; i < m; i++) {
+            for (int l = 0; l < m; l++) {
+                double factor = a[i * m + l];
+                if (factor == 0.0) {
+                    continue;
+                }
+                for (int j = 0; j < m; j++) {
+                    c[i * m + j] += factor * b[l * m + j];
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * p-значение статистики хи-квадрат.
+     *
+     * @param chiSquare        значение статистики.
+     * @param degreesOfFreedom число степеней свободы.
+     * @return P(χ² ≥ chiSquare).
+     */
+    public static double chiSquarePValue(double chiSquare, double degreesOfFreedom) {
+        if (chiSquare <= 0.0) {
+            return 1.0;
+        }
+        return regularizedGammaQ(degreesOfFreedom / 2.0, chiSquare / 2.0);
+    }
+
+    /**
+     * Двустороннее p-значение для стандартной нормальной величины.
+     *
+     * @param z значение z-статистики.
+     * @return P(|Z| ≥ |z|).
+     */
+    public static double normalTwoSidedPValue(double z) {
+        return erfc(Math.abs(z) / Math.sqrt(2.0));
+    }
+
+    /**
+     * Дополнительная функция ошибок erfc(x).
+     *
+     * @param x аргумент.
+     * @return erfc(x).
+     */
+    public static double erfc(double x) {
+        if (x < 0.0) {
+            return 2.0 - erfc(-x);
+        }
+        return regularizedGammaQ(0.5, x * x);
+    }
+
+    /**
+     * Регуляризованная верхняя неполная гамма-функция Q(a, x) = Γ(a, x) / Γ(a).
+     *
+     * @param a параметр формы (a &gt; 0).
+     * @param x аргумент (x ≥ 0).
+     * @return Q(a, x).
+     */
+    public static double regularizedGammaQ(double a, double x) {
+        if (x < 0.0 || a <= 0.0) {
+            throw new IllegalArgumentException("Некорректные аргументы гамма-функции: a=" + a + ", x=" + x);
+        }
+        if (x == 0.0) {
+            return 1.0;
+        }
+        if (x < a + 1.0) {
+            return 1.0 - gammaSeries(a, x);
+        }
+        return gammaContinuedFraction(a, x);
+    }
+
+    // Разложение P(a, x) в ряд
+    private static double gammaSeries(double a, double x) {
+        double ap = a;
+        double sum = 1.0 / a;
+        double delta = sum;
+        for (int n = 0; n < MAX_ITERATIONS; n++) {
+            ap++;
+            delta *= x / ap;
+            sum += delta;
+            if (Math.abs(delta) < Math.abs(sum) * EPSILON) {
+                break;
+            }
+        }
+        return sum * Math.exp(-x + a * Math.log(x) - logGamma(a));
+    }
+
+    // Цепная дробь для Q(a, x) (метод Лентца)
+    private static double gammaContinuedFraction(double a, double x) {
+        double b = x + 1.0 - a;
+        double c = 1.0 / TINY;
+        double d = 1.0 / b;
+        double h = d;
+        for (int i = 1; i < MAX_ITERATIONS; i++) {
+            double an = -i * (i - a);
+            b += 2.0;
+            d = an * d + b;
+            if (Math.abs(d) < TINY) {
+                d = TINY;
+            }
+            c = b + an / c;
+            if (Math.abs(c) < TINY) {
+                c = TINY;
+            }
+            d = 1.0 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1.0) < EPSILON) {
+                break;
+            }
+        }
+        return Math.exp(-x + a * Math.log(x) - logGamma(a)) * h;
+    }
+
+    /**
+     * Натуральный логарифм гамма-функции (аппроксимация Ланцоша).
+     *
+     * @param x аргумент (x &gt; 0).
+     * @return ln Γ(x).
+     */
+    public static double logGamma(double x) {
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : LANCZOS) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+
+}
@@ -8,15 +8,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class DotController extends JPanel {
     // Константы для конфигурации панели
-    private static final int SIZE = 900; // Основной размер панели по высоте и ширине (в пикселях)
+    static final int SIZE = 900; // Основной размер панели по высоте и ширине (в пикселях)
     private static final int DOT_SIZE = 2; // Размер отображаемой точки (ширина и высота в пикселях)
 
     // Константы для управления скоростью наполнения треугольников
@@ -39,8 +41,14 @@ public class DotController extends JPanel {
      */
     private static final int RIGHT_TRIANGLE_OFFSET_X = 900; // Горизонтальное смещение правого треугольника (в пикселях)
 
-    private static final long MIN_RANDOM_VALUE = -99999999L; // Минимальное значение для генерации случайных чисел
-    private static final long MAX_RANDOM_VALUE = 100000000L; // Максимальное значение для генерации случайных чисел
+    // **Константы бюджета случайных чисел**
+    private static final String MAIN_CONSUMER_NAME = "main-triangle"; // Потребитель основного треугольника
+    private static final String SECONDARY_CONSUMER_NAME = "number-triangle"; // Потребитель правого треугольника
+    private static final double MAIN_RESERVED_SHARE = 0.9; // Доля порога низкого запаса, защищенная для основного треугольника
+    private static final double SECONDARY_BYTES_PER_SECOND = 16; // Норма правого треугольника: 4 байта за такт с запасом в 2 раза
+
+    static final long MIN_RANDOM_VALUE = -99999999L; // Минимальное значение для генерации случайных чисел
+    static final long MAX_RANDOM_VALUE = 100000000L; // Максимальное значение для генерации случайных чисел
 
     // **Константы для треугольника случайных чисел**
     /**
@@ -77,18 +85,46 @@ public class DotController extends JPanel {
      */
     private static final int NUM_SPACING = 60;
 
+    /**
+     * TILE_SIZE определяет размер квадратного фрагмента буферного изображения (в пикселях),
+     * с точностью до которого отслеживаются изменения для инкрементальных контрольных точек.
+     * SIZE должен делиться на TILE_SIZE без остатка.
+     */
+    static final int TILE_SIZE = 30;
+    static final int TILES_PER_ROW = SIZE / TILE_SIZE; // Количество фрагментов в одной строке изображения
+    static final int TILE_COUNT = TILES_PER_ROW * TILES_PER_ROW; // Общее количество фрагментов изображения
+
+    /**
+     * MAX_RIGHT_TRIANGLE_ENTRIES ограничивает количество чисел и позиций упавших чисел правого треугольника.
+     * Треугольник вмещает несколько сотен чисел, поэтому более старые записи не отображаются, а без ограничения
+     * списки и каждая контрольная точка росли бы все время работы приложения.
+     */
+    static final int MAX_RIGHT_TRIANGLE_ENTRIES = 2048;
+
     // Константы для сообщений и логирования
     private static final String ERROR_NO_RANDOM_NUMBERS = "Больше нет доступных случайных чисел: ";
     private static final String LOG_DOTS_PROCESSED = "Обработано %d новых точек.";
+    private static final String LOG_TICK_THROTTLED = "Такт пропущен бюджетом случайных чисел: ";
 
     // Константы для текстов на экране
     private static final String DRAW_STRING_SAMPLE_INDEX = "Порядковый номер выборки: %d";
     private static final String DRAW_STRING_CURRENT_RANDOM = "Текущее случайное число: %d";
+    private static final String DRAW_STRING_DIMENSION = "Фрактальная размерность: %.4f (теоретическая %.4f), изменение за 1000 точек: %+.5f";
+    private static final String DRAW_STRING_CONVERGED = " — оценка стабилизировалась";
+    private static final String DRAW_STRING_SATURATED = " — сетка оценки заполнена";
+
+    /**
+     * CONVERGENCE_TOLERANCE определяет изменение оценки размерности за 1000 точек,
+     * ниже которого оценка отображается как стабилизировавшаяся.
+     */
+    private static final double CONVERGENCE_TOLERANCE = 1e-3;
 
     private final List<Dot> dots; // Список всех точек, отображаемых на основном треугольнике
     private final List<Integer> numbers; // Список для хранения чисел, используемых в правом треугольнике
     private final List<Point> fallenPositions; // Список позиций, где "упали" числа
-    private final RandomNumberProvider randomNumberProvider; // Провайдер случайных чисел
+    private final EntropyBudget entropyBudget; // Бюджет случайных чисел для таймеров
+    private final EntropyConsumer mainConsumer; // Потребитель основного треугольника (критичный)
+    private final EntropyConsumer secondaryConsumer; // Потребитель правого треугольника (фоновый)
     private volatile String errorMessage; // Сообщение об ошибке, если оно возникло
     private Point currentPoint; // Текущая позиция точки для рисования
     private final BufferedImage offscreenImage; // Буфер для двойной буферизации графики
@@ -106,8 +142,34 @@ public class DotController extends JPanel {
     // **Инициализация списка использованных случайных чисел**
     private final List<Long> usedRandomNumbers; // Список использованных случайных чисел для предотвращения повторений
 
-    public DotController(RandomNumberProvider randomNumberProvider) {
-        this.randomNumberProvider = randomNumberProvider;
+    // Битовая карта фрагментов изображения, измененных с момента последней контрольной точки
+    private final AtomicLongArray dirtyTiles = new AtomicLongArray((TILE_COUNT + 63) / 64);
+
+    // Оценка фрактальной размерности для отслеживания сходимости
+    private final BoxCountingEstimator dimensionEstimator = new BoxCountingEstimator(SIZE);
+
+    // Завершается при первой отрисовке панели с новой точкой
+    private final CompletableFuture<Void> firstDotPainted = new CompletableFuture<>();
+    private boolean newDotDrawn; // Новая точка нарисована, но панель еще не перерисована
+
+    public DotController(RandomNumberSupplier randomNumberProvider) {
+        this(randomNumberProvider, null);
+    }
+
+    /**
+     * Создает контроллер и, если передано сохраненное состояние, восстанавливает его.
+     * Таймеры наполнения создаются остановленными и запускаются {@link #startFilling()}.
+     *
+     * @param randomNumberProvider поставщик случайных чисел: локальный провайдер или клиент общего пула.
+     * @param restoredState        состояние из контрольной точки или {@code null} для запуска с нуля.
+     */
+    public DotController(RandomNumberSupplier randomNumberProvider, RenderState restoredState) {
+        // Видимая отрисовка не должна останавливаться из-за правого треугольника
+        entropyBudget = new EntropyBudget(randomNumberProvider);
+        mainConsumer = entropyBudget.register(MAIN_CONSUMER_NAME, EntropyBudget.Priority.CRITICAL, 0, MAIN_RESERVED_SHARE);
+        secondaryConsumer = entropyBudget.register(SECONDARY_CONSUMER_NAME, EntropyBudget.Priority.BACKGROUND,
+                SECONDARY_BYTES_PER_SECOND, 0);
+        entropyBudget.start(Integer.toHexString(System.identityHashCode(this)));
         currentPoint = new Point(SIZE / 2, SIZE / 2); // Инициализация текущей точки в центре панели
 
         // **Увеличиваем размеры панели на 33% по ширине и высоте**
@@ -125,7 +187,11 @@ public class DotController extends JPanel {
         scheduler = Executors.newScheduledThreadPool(1); // Создание планировщика с одним потоком
         random = new Random(); // Инициализация генератора случайных чисел
 
-        // Инициализация таймеров для наполнения треугольников
+        if (restoredState != null) {
+            restoreRenderState(restoredState);
+        }
+
+        // Инициализация таймеров для наполнения треугольников (без запуска)
         initializeMainFillingTimer();
         initializeSecondaryFillingTimer();
     }
@@ -137,23 +203,27 @@ public class DotController extends JPanel {
     private void initializeMainFillingTimer() {
         mainFillingTimer = new Timer(FILLING_SPEED_MAIN, e -> {
             try {
+                long randomValue = mainConsumer.getNextRandomNumberInRange(MIN_RANDOM_VALUE, MAX_RANDOM_VALUE);
                 currentRandomValueIndex++;
-                long randomValue = randomNumberProvider.getNextRandomNumberInRange(MIN_RANDOM_VALUE, MAX_RANDOM_VALUE);
                 currentRandomValue = randomValue;
                 currentPoint = calculateNewDotPosition(currentPoint, randomValue);
+                dimensionEstimator.record(currentPoint.x, currentPoint.y);
                 Dot newDot = new Dot(new Point(currentPoint));
                 dots.add(newDot);
 
                 // Рисование новой точки красным цветом
                 drawDots(Collections.singletonList(newDot), Color.RED);
+                newDotDrawn = true;
                 repaint();
-                LOGGER.fine(String.format(LOG_DOTS_PROCESSED, 1));
+                LOGGER.fine(() -> String.format(LOG_DOTS_PROCESSED, 1));
 
                 // Запланировать смену цвета точки на черный через 1 секунду
                 scheduler.schedule(() -> {
                     drawDots(Collections.singletonList(newDot), Color.BLACK);
                     repaint();
                 }, 1, TimeUnit.SECONDS);
+            } catch (EntropyThrottledException ex) {
+                LOGGER.fine(() -> LOG_TICK_THROTTLED + ex.getMessage()); // Следующий такт повторит попытку
             } catch (NoSuchElementException ex) {
                 if (errorMessage == null) {
                     errorMessage = ex.getMessage();
@@ -162,7 +232,6 @@ public class DotController extends JPanel {
                 mainFillingTimer.stop(); // Остановка таймера при ошибке
             }
         });
-        mainFillingTimer.start(); // Запуск таймера наполнения основного треугольника
     }
 
     /**
@@ -172,19 +241,25 @@ public class DotController extends JPanel {
     private void initializeSecondaryFillingTimer() {
         secondaryFillingTimer = new Timer(FILLING_SPEED_SECONDARY, e -> {
             try {
-                long randomValue = randomNumberProvider.getNextRandomNumberInRange(MIN_RANDOM_VALUE, MAX_RANDOM_VALUE);
+                long randomValue = secondaryConsumer.getNextRandomNumberInRange(MIN_RANDOM_VALUE, MAX_RANDOM_VALUE);
                 currentRandomValue = randomValue;
                 usedRandomNumbers.add(randomValue);
 
                 // Определение новой позиции для числа в правом треугольнике
                 Point newPosition = calculateNewNumberPosition();
-                numbers.add((int) randomValue);
+                if (numbers.size() < MAX_RIGHT_TRIANGLE_ENTRIES) {
+                    numbers.add((int) randomValue);
+                }
 
                 // Добавление новой позиции в список упавших чисел
-                fallenPositions.add(newPosition);
+                if (fallenPositions.size() < MAX_RIGHT_TRIANGLE_ENTRIES) {
+                    fallenPositions.add(newPosition);
+                }
 
                 repaint(); // Перерисовка панели для отображения нового числа
-                LOGGER.fine(String.format(LOG_DOTS_PROCESSED, 1));
+                LOGGER.fine(() -> String.format(LOG_DOTS_PROCESSED, 1));
+            } catch (EntropyThrottledException ex) {
+                LOGGER.fine(() -> LOG_TICK_THROTTLED + ex.getMessage()); // Следующий такт повторит попытку
             } catch (NoSuchElementException ex) {
                 if (errorMessage == null) {
                     errorMessage = ex.getMessage();
@@ -193,7 +268,46 @@ public class DotController extends JPanel {
                 secondaryFillingTimer.stop(); // Остановка таймера при ошибке
             }
         });
-        secondaryFillingTimer.start(); // Запуск таймера наполнения правого треугольника
+    }
+
+    /**
+     * Запускает таймеры наполнения треугольников. Вызывается в потоке событий после отображения окна
+     * и появления первых случайных чисел, чтобы первые такты не ждали источник в потоке событий.
+     */
+    public void startFilling() {
+        mainFillingTimer.start();
+        secondaryFillingTimer.start();
+    }
+
+    /**
+     * Показывает сообщение об ошибке поверх изображения или убирает его. Вызывается в потоке событий.
+     *
+     * @param message текст сообщения или {@code null}.
+     */
+    public void setErrorMessage(String message) {
+        errorMessage = message;
+        repaint();
+    }
+
+    /**
+     * @return завершается, когда панель впервые отрисована с точкой, добавленной после {@link #startFilling()}.
+     */
+    public CompletableFuture<Void> getFirstDotPainted() {
+        return firstDotPainted;
+    }
+
+    /**
+     * @return бюджет, распределяющий случайные числа между таймерами наполнения.
+     */
+    public EntropyBudget getEntropyBudget() {
+        return entropyBudget;
+    }
+
+    /**
+     * @return оценка фрактальной размерности отрисованного множества точек.
+     */
+    public BoxCountingEstimator getDimensionEstimator() {
+        return dimensionEstimator;
     }
 
     public void startDotMovement() {
@@ -201,10 +315,24 @@ public class DotController extends JPanel {
         scheduler.scheduleAtFixedRate(this::updateFallingNumbers, 0, 500, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Останавливает таймеры наполнения треугольников и планировщик.
+     * Уже запланированная смена цвета точек выполняется до завершения планировщика.
+     */
+    public void shutdown() {
+        mainFillingTimer.stop();
+        secondaryFillingTimer.stop();
+        scheduler.shutdown();
+        entropyBudget.shutdown();
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         g.drawImage(offscreenImage, 0, 0, null); // Отрисовка буферного изображения
+        if (newDotDrawn && !firstDotPainted.isDone()) {
+            firstDotPainted.complete(null);
+        }
 
         // Отображение индекса текущей выборки
         g.setColor(Color.BLUE);
@@ -222,6 +350,20 @@ public class DotController extends JPanel {
             g.drawString(errorMessage, 10, 60);
         }
 
+        // Отображение оценки фрактальной размерности и скорости ее изменения
+        double dimension = dimensionEstimator.getDimension();
+        if (!Double.isNaN(dimension)) {
+            g.setColor(Color.DARK_GRAY);
+            String text = String.format(DRAW_STRING_DIMENSION, dimension, BoxCountingEstimator.SIERPINSKI_DIMENSION,
+                    dimensionEstimator.getRateOfChange());
+            if (dimensionEstimator.isSaturated()) {
+                text += DRAW_STRING_SATURATED;
+            } else if (dimensionEstimator.isConverged(CONVERGENCE_TOLERANCE)) {
+                text += DRAW_STRING_CONVERGED;
+            }
+            g.drawString(text, 10, 80);
+        }
+
         drawFallingNumbers(g); // Отрисовка падающих чисел
 
         // Отрисовка "упавших" чисел в их позициях
@@ -308,7 +450,7 @@ public class DotController extends JPanel {
     }
 
     private void updateFallingNumbers() {
-        if (!usedRandomNumbers.isEmpty()) {
+        if (!usedRandomNumbers.isEmpty() && fallenPositions.size() < MAX_RIGHT_TRIANGLE_ENTRIES) {
             // Генерация случайных смещений для создания эффекта "падения" чисел
             // Смещение по X: случайное значение от -1 до 1, умноженное на четверть расстояния между числами
             int offsetX = (random.nextInt(3) - 1) * NUM_SPACING / 4; // случайное смещение по X
@@ -323,18 +465,114 @@ public class DotController extends JPanel {
     }
 
     // Метод для отрисовки новых точек на буферном изображении
-    private void drawDots(List<Dot> newDots, Color color) {
+    void drawDots(List<Dot> newDots, Color color) {
         Graphics2D g2d = offscreenImage.createGraphics(); // Получение графического контекста
         g2d.setColor(color); // Установка цвета для отрисовки точек
         for (Dot dot : newDots) {
+            Point point = dot.point();
             // Отрисовка точки как заполненного прямоугольника
-            g2d.fillRect(dot.point().x, dot.point().y, DOT_SIZE, DOT_SIZE);
+            g2d.fillRect(point.x, point.y, DOT_SIZE, DOT_SIZE);
+            // Точка может пересекать границу фрагмента, поэтому помечаем оба угла
+            markTileDirty(point.x, point.y);
+            markTileDirty(point.x + DOT_SIZE - 1, point.y + DOT_SIZE - 1);
         }
         g2d.dispose(); // Освобождение графического контекста
     }
 
+    // Метод для пометки фрагмента, содержащего пиксель (x, y), как измененного
+    private void markTileDirty(int x, int y) {
+        if (x < 0 || y < 0 || x >= SIZE || y >= SIZE) {
+            return; // Пиксель за пределами буферного изображения
+        }
+        int tile = (y / TILE_SIZE) * TILES_PER_ROW + x / TILE_SIZE;
+        long bit = 1L << (tile & 63);
+        int word = tile >>> 6;
+        if ((dirtyTiles.get(word) & bit) == 0) {
+            dirtyTiles.getAndUpdate(word, w -> w | bit);
+        }
+    }
+
+    /**
+     * Забирает битовую карту фрагментов, измененных с момента предыдущего вызова, и сбрасывает ее.
+     * Может вызываться из любого потока.
+     *
+     * @return биты измененных фрагментов (бит {@code i} соответствует фрагменту {@code i}).
+     */
+    long[] drainDirtyTiles() {
+        long[] drained = new long[dirtyTiles.length()];
+        for (int i = 0; i < drained.length; i++) {
+            drained[i] = dirtyTiles.getAndSet(i, 0L);
+        }
+        return drained;
+    }
+
+    /**
+     * Копирует пиксели фрагмента буферного изображения в переданный массив (построчно, ARGB).
+     * Может вызываться из любого потока; пиксели, измененные во время копирования,
+     * повторно попадут в следующую контрольную точку.
+     *
+     * @param tile   индекс фрагмента.
+     * @param buffer массив длиной не меньше TILE_SIZE * TILE_SIZE.
+     */
+    void readTile(int tile, int[] buffer) {
+        int x = (tile % TILES_PER_ROW) * TILE_SIZE;
+        int y = (tile / TILES_PER_ROW) * TILE_SIZE;
+        offscreenImage.getRaster().getDataElements(x, y, TILE_SIZE, TILE_SIZE, buffer);
+    }
+
+    /**
+     * Фиксирует текущее состояние отрисовки без растра. Должен вызываться в потоке EDT,
+     * где изменяются счетчики и правый треугольник.
+     *
+     * @return снимок состояния.
+     */
+    RenderState captureRenderState() {
+        int[] numbersSnapshot = new int[numbers.size()];
+        for (int i = 0; i < numbersSnapshot.length; i++) {
+            numbersSnapshot[i] = numbers.get(i);
+        }
+        int[] positionsSnapshot = new int[fallenPositions.size() * 2];
+        for (int i = 0; i < fallenPositions.size(); i++) {
+            Point position = fallenPositions.get(i);
+            positionsSnapshot[2 * i] = position.x;
+            positionsSnapshot[2 * i + 1] = position.y;
+        }
+        return new RenderState(currentPoint, currentRandomValueIndex, currentRandomValue,
+                numbersSnapshot, positionsSnapshot, null, dimensionEstimator.snapshot());
+    }
+
+    // Метод для восстановления состояния отрисовки из контрольной точки
+    private void restoreRenderState(RenderState state) {
+        currentPoint = state.currentPoint();
+        currentRandomValueIndex = state.currentRandomValueIndex();
+        currentRandomValue = state.currentRandomValue();
+        int[] restoredNumbers = state.numbers();
+        for (int i = 0; i < restoredNumbers.length && i < MAX_RIGHT_TRIANGLE_ENTRIES; i++) {
+            numbers.add(restoredNumbers[i]);
+        }
+        int[] positions = state.fallenPositions();
+        for (int i = 0; i + 1 < positions.length && fallenPositions.size() < MAX_RIGHT_TRIANGLE_ENTRIES; i += 2) {
+            fallenPositions.add(new Point(positions[i], positions[i + 1]));
+        }
+        if (state.pixels() != null) {
+            int[] pixels = state.pixels().clone();
+            // Смена цвета новых точек на черный запланирована после записи снимка и не восстанавливается
+            int red = Color.RED.getRGB();
+            int black = Color.BLACK.getRGB();
+            for (int i = 0; i < pixels.length; i++) {
+                if (pixels[i] == red) {
+                    pixels[i] = black;
+                }
+            }
+            offscreenImage.getRaster().setDataElements(0, 0, SIZE, SIZE, pixels);
+        }
+        if (state.dimension() != null) {
+            dimensionEstimator.restore(state.dimension());
+        }
+    }
+
     // Метод для расчёта новой позиции точки на основе случайного значения
-    private Point calculateNewDotPosition(Point currentPoint, long randomValue) {
+    static Point calculateNewDotPosition(Point currentPoint, long randomValue) {
         Point A = new Point(SIZE / 2, 0); // Вершина треугольника Серпинского
         Point B = new Point(0, SIZE); // Левая нижняя вершина треугольника Серпинского
         Point C = new Point(SIZE, SIZE); // Правая нижняя вершина треугольника Серпинского
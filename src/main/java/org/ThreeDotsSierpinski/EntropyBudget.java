@@ -0,0 +1,271 @@
+package org.ThreeDotsSierpinski;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Бюджет случайных чисел для нескольких потребителей одного поставщика.
+ * <p>
+ * Каждый потребитель ({@link EntropyConsumer}) имеет приоритет, норму в виде token bucket
+ * (байтов в секунду, запас — на одну секунду) и резервируемую долю. Резервы действуют, когда
+ * запас поставщика опускается ниже порога низкого запаса: доля порога, зарезервированная
+ * потребителем, недоступна потребителям с более низким приоритетом. Поэтому при нехватке
+ * сначала ограничиваются фоновые потребители, а критичные получают числа до последнего.
+ * Отклоненный запрос завершается {@link EntropyThrottledException}; полное исчерпание
+ * поставщика — обычным {@link NoSuchElementException}.
+ */
+public class EntropyBudget implements EntropyBudgetMBean {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    /**
+     * Приоритет потребителя: чем раньше в перечислении, тем важнее.
+     */
+    public enum Priority {
+        /** Видимая отрисовка; не должна останавливаться из-за фоновых задач. */
+        CRITICAL,
+        /** Обычные потребители. */
+        NORMAL,
+        /** Фоновые задачи, ограничиваемые первыми. */
+        BACKGROUND
+    }
+
+    /**
+     * Учет расхода одного потребителя.
+     *
+     * @param name              имя потребителя
+     * @param priority          приоритет
+     * @param grantedBytes      выданные байты
+     * @param throttledRequests отклоненные бюджетом запросы
+     * @param exhaustedRequests запросы, завершившиеся исчерпанием поставщика
+     */
+    public record ConsumerUsage(String name, Priority priority, long grantedBytes,
+                                long throttledRequests, long exhaustedRequests) {
+    }
+
+    // Строковые константы
+    private static final String OBJECT_NAME = "org.ThreeDotsSierpinski:type=EntropyBudget,name=";
+    private static final String LOG_USAGE = "Расход случайных чисел: %s (запас: %s)";
+    private static final String LOG_JMX_FAILED = "Не удалось зарегистрировать бюджет случайных чисел в JMX.";
+    private static final String USAGE_FORMAT = "%s [%s]: выдано %d байт, отклонено %d, исчерпано %d";
+    private static final String RATE_EXCEEDED = "Потребитель %s превысил норму %.1f байт/с.";
+    private static final String RESERVED = "Оставшиеся случайные числа зарезервированы для более приоритетных потребителей, чем %s.";
+    private static final String EXHAUSTED = "Случайные числа закончились.";
+    private static final String UNKNOWN_SUPPLY = "неизвестен";
+
+    private static final long DEFAULT_LOW_SUPPLY_THRESHOLD = 4096; // Порог низкого запаса по умолчанию (в байтах)
+    private static final int REPORT_INTERVAL_SECONDS = 10; // Интервал записи учета в лог
+
+    private final RandomNumberSupplier source;
+    private final long lowSupplyThreshold;
+    private final List<EntropyConsumer> consumers = new ArrayList<>();
+
+    private final ScheduledExecutorService reporter;
+    private ObjectName objectName;
+
+    /**
+     * @param source общий поставщик случайных чисел.
+     */
+    public EntropyBudget(RandomNumberSupplier source) {
+        this(source, DEFAULT_LOW_SUPPLY_THRESHOLD);
+    }
+
+    /**
+     * @param source             общий поставщик случайных чисел.
+     * @param lowSupplyThreshold запас (в байтах), начиная с которого действуют резервы.
+     */
+    public EntropyBudget(RandomNumberSupplier source, long lowSupplyThreshold) {
+        if (lowSupplyThreshold < 0) {
+            throw new IllegalArgumentException("Порог низкого запаса не может быть отрицательным: " + lowSupplyThreshold);
+        }
+        this.source = source;
+        this.lowSupplyThreshold = lowSupplyThreshold;
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "entropy-budget");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Регистрирует потребителя.
+     *
+     * @param name           уникальное имя потребителя.
+     * @param priority       приоритет.
+     * @param bytesPerSecond норма в байтах в секунду; 0 — без ограничения.
+     * @param reservedShare  доля порога низкого запаса, недоступная менее приоритетным потребителям.
+     * @return потребитель, через которого следует получать числа.
+     */
+    public synchronized EntropyConsumer register(String name, Priority priority, double bytesPerSecond, double reservedShare) {
+        if (bytesPerSecond < 0 || reservedShare < 0 || reservedShare > 1) {
+            throw new IllegalArgumentException("Некорректные параметры потребителя " + name
+                    + ": норма " + bytesPerSecond + ", резерв " + reservedShare);
+        }
+        double totalShare = reservedShare;
+        for (EntropyConsumer consumer : consumers) {
+            if (consumer.getName().equals(name)) {
+                throw new IllegalArgumentException("Потребитель уже зарегистрирован: " + name);
+            }
+            totalShare += consumer.getReservedShare();
+        }
+        if (totalShare > 1.0 + 1e-9) {
+            throw new IllegalArgumentException("Сумма резервов потребителей превышает 1: " + totalShare);
+        }
+        EntropyConsumer consumer = new EntropyConsumer(this, name, priority, bytesPerSecond, reservedShare);
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    synchronized void unregister(EntropyConsumer consumer) {
+        consumers.remove(consumer);
+    }
+
+    RandomNumberSupplier getSource() {
+        return source;
+    }
+
+    /**
+     * Согласует выдачу байтов потребителю.
+     *
+     * @throws EntropyThrottledException если норма исчерпана или запас зарезервирован.
+     * @throws NoSuchElementException    если поставщик исчерпан.
+     */
+    void acquire(EntropyConsumer consumer, int bytes) {
+        // Запас читается до захвата монитора бюджета: потребители не ждут друг друга из-за поставщика
+        long remaining = source.getRemainingSupply();
+        synchronized (this) {
+            acquire(consumer, bytes, remaining);
+        }
+    }
+
+    private void acquire(EntropyConsumer consumer, int bytes, long remaining) {
+        if (remaining <= 0) {
+            consumer.exhaustedRequests++;
+            throw new NoSuchElementException(EXHAUSTED);
+        }
+        double rate = consumer.getBytesPerSecond();
+        if (rate > 0) {
+            long now = System.nanoTime();
+            double capacity = Math.max(rate, bytes);
+            consumer.availableTokens = Math.min(capacity, consumer.availableTokens + (now - consumer.lastRefillNanos) * rate / 1e9);
+            consumer.lastRefillNanos = now;
+            if (consumer.availableTokens < bytes) {
+                consumer.throttledRequests++;
+                throw new EntropyThrottledException(String.format(RATE_EXCEEDED, consumer.getName(), rate));
+            }
+        }
+        if (remaining != Long.MAX_VALUE && remaining - bytes < protectedSupply(consumer.getPriority())) {
+            consumer.throttledRequests++;
+            throw new EntropyThrottledException(String.format(RESERVED, consumer.getName()));
+        }
+        if (rate > 0) {
+            consumer.availableTokens -= bytes;
+        }
+    }
+
+    /**
+     * Учитывает байты, фактически полученные потребителем от поставщика после {@link #acquire}.
+     */
+    synchronized void recordGranted(EntropyConsumer consumer, int bytes) {
+        consumer.grantedBytes += bytes;
+    }
+
+    synchronized void recordExhausted(EntropyConsumer consumer) {
+        consumer.exhaustedRequests++;
+    }
+
+    // Запас, зарезервированный потребителями с более высоким приоритетом
+    private double protectedSupply(Priority priority) {
+        double share = 0;
+        for (EntropyConsumer consumer : consumers) {
+            if (consumer.getPriority().compareTo(priority) < 0) {
+                share += consumer.getReservedShare();
+            }
+        }
+        return share * lowSupplyThreshold;
+    }
+
+    /**
+     * @return учет расхода по всем зарегистрированным потребителям.
+     */
+    public synchronized List<ConsumerUsage> getUsage() {
+        List<ConsumerUsage> usage = new ArrayList<>(consumers.size());
+        for (EntropyConsumer consumer : consumers) {
+            usage.add(new ConsumerUsage(consumer.getName(), consumer.getPriority(), consumer.grantedBytes,
+                    consumer.throttledRequests, consumer.exhaustedRequests));
+        }
+        return usage;
+    }
+
+    @Override
+    public long getRemainingSupply() {
+        return source.getRemainingSupply();
+    }
+
+    @Override
+    public long getLowSupplyThreshold() {
+        return lowSupplyThreshold;
+    }
+
+    @Override
+    public String[] getConsumerUsage() {
+        return getUsage().stream()
+                .map(usage -> String.format(USAGE_FORMAT, usage.name(), usage.priority(), usage.grantedBytes(),
+                        usage.throttledRequests(), usage.exhaustedRequests()))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Регистрирует бюджет в JMX и запускает периодическую запись учета в лог.
+     *
+     * @param name имя экземпляра для ObjectName.
+     */
+    public void start(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(OBJECT_NAME + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, LOG_JMX_FAILED, e);
+            objectName = null;
+        }
+        reporter.scheduleAtFixedRate(this::report, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Останавливает запись в лог и снимает регистрацию в JMX. Поставщик не останавливается.
+     */
+    public void shutdown() {
+        reporter.shutdownNow();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (InstanceNotFoundException ignored) {
+                // Уже снят с регистрации
+            } catch (JMException e) {
+                LOGGER.log(Level.FINE, LOG_JMX_FAILED, e);
+            }
+            objectName = null;
+        }
+    }
+
+    private void report() {
+        long remaining = getRemainingSupply();
+        LOGGER.info(String.format(LOG_USAGE, String.join("; ", getConsumerUsage()),
+                remaining == Long.MAX_VALUE ? UNKNOWN_SUPPLY : Long.toString(remaining)));
+    }
+
+}
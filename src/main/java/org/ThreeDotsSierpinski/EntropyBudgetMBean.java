@@ -0,0 +1,23 @@
+package org.ThreeDotsSierpinski;
+
+/**
+ * JMX-интерфейс бюджета случайных чисел.
+ */
+public interface EntropyBudgetMBean {
+
+    /**
+     * @return оценка оставшегося запаса случайных байтов или {@link Long#MAX_VALUE}, если он неизвестен.
+     */
+    long getRemainingSupply();
+
+    /**
+     * @return порог запаса (в байтах), внутри которого действуют резервы приоритетных потребителей.
+     */
+    long getLowSupplyThreshold();
+
+    /**
+     * @return учет расхода по потребителям, по одной строке на потребителя.
+     */
+    String[] getConsumerUsage();
+
+}
@@ -0,0 +1,97 @@
+package org.ThreeDotsSierpinski;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Именованный потребитель случайных чисел, зарегистрированный в {@link EntropyBudget}.
+ * Каждый запрос сначала согласуется с бюджетом, а затем выполняется у общего поставщика.
+ */
+public class EntropyConsumer implements RandomNumberSupplier {
+
+    private final EntropyBudget budget;
+    private final String name;
+    private final EntropyBudget.Priority priority;
+    private final double bytesPerSecond; // Скорость пополнения нормы; 0 — без ограничения
+    private final double reservedShare; // Доля порога низкого запаса, защищенная от менее приоритетных
+
+    // Состояние нормы и учет расхода; защищены монитором бюджета
+    double availableTokens;
+    long lastRefillNanos;
+    long grantedBytes;
+    long throttledRequests;
+    long exhaustedRequests;
+
+    EntropyConsumer(EntropyBudget budget, String name, EntropyBudget.Priority priority,
+                    double bytesPerSecond, double reservedShare) {
+        this.budget = budget;
+        this.name = name;
+        this.priority = priority;
+        this.bytesPerSecond = bytesPerSecond;
+        this.reservedShare = reservedShare;
+        availableTokens = bytesPerSecond;
+        lastRefillNanos = System.nanoTime();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public EntropyBudget.Priority getPriority() {
+        return priority;
+    }
+
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public double getReservedShare() {
+        return reservedShare;
+    }
+
+    /**
+     * @throws EntropyThrottledException если запрос отклонен бюджетом.
+     * @throws NoSuchElementException    если случайные числа закончились.
+     */
+    @Override
+    public int getNextRandomNumber() {
+        budget.acquire(this, 1);
+        int value;
+        try {
+            value = budget.getSource().getNextRandomNumber();
+        } catch (NoSuchElementException e) {
+            budget.recordExhausted(this);
+            throw e;
+        }
+        budget.recordGranted(this, 1);
+        return value;
+    }
+
+    /**
+     * Согласует с бюджетом сразу четыре байта, чтобы отказ не оставлял число собранным наполовину.
+     *
+     * @throws EntropyThrottledException если запрос отклонен бюджетом.
+     * @throws NoSuchElementException    если случайные числа закончились.
+     */
+    @Override
+    public int getNextRandomInteger() {
+        budget.acquire(this, Integer.BYTES);
+        int value;
+        try {
+            value = budget.getSource().getNextRandomInteger();
+        } catch (NoSuchElementException e) {
+            budget.recordExhausted(this);
+            throw e;
+        }
+        budget.recordGranted(this, Integer.BYTES);
+        return value;
+    }
+
+    /**
+     * Снимает потребителя с учета; общий поставщик продолжает работу.
+     */
+    @Override
+    public void shutdown() {
+        budget.unregister(this);
+    }
+
+}
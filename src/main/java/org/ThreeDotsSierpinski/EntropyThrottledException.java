@@ -0,0 +1,16 @@
+package org.ThreeDotsSierpinski;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Запрос потребителя отклонен бюджетом {@link EntropyBudget}: исчерпана его норма или оставшиеся
+ * числа зарезервированы для более приоритетных потребителей. В отличие от базового
+ * {@link NoSuchElementException}, это временное состояние: запрос можно повторить позже.
+ */
+public class EntropyThrottledException extends NoSuchElementException {
+
+    public EntropyThrottledException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.ThreeDotsSierpinski;
+
+/**
+ * Локальный источник энтропии на основе дрожания времени выполнения.
+ * <p>
+ * Измеряет {@link System#nanoTime()} вокруг короткого цикла обращений к памяти; младшие биты
+ * разностей зависят от кешей, прерываний и планировщика. Каждый выходной бит — четность
+ * младших битов нескольких измерений. Качество такого источника не гарантировано, поэтому он
+ * используется только как дополнительное зерно для {@link java.security.SecureRandom}, а не напрямую.
+ */
+public class JitterEntropySource implements RandomBytesSource {
+
+    private static final int SAMPLES_PER_BIT = 8; // Количество измерений, сворачиваемых в один бит
+    private static final int LOW_BITS_MASK = 0xF; // Используемые младшие биты разности времени
+    private static final int MEMORY_SIZE = 4096; // Размер массива, к которому обращается цикл измерения
+
+    private final int[] memory = new int[MEMORY_SIZE];
+    private int position = 0;
+
+    @Override
+    public synchronized byte[] fetch(int length) {
+        byte[] bytes = new byte[length];
+        long previous = System.nanoTime();
+        for (int i = 0; i < length; i++) {
+            int value = 0;
+            for (int bit = 0; bit < Byte.SIZE; bit++) {
+                int folded = 0;
+                for (int sample = 0; sample < SAMPLES_PER_BIT; sample++) {
+                    touchMemory();
+                    long now = System.nanoTime();
+                    folded ^= (int) (now - previous) & LOW_BITS_MASK;
+                    previous = now;
+                }
+                value = value << 1 | Integer.bitCount(folded) & 1;
+            }
+            bytes[i] = (byte) value;
+        }
+        return bytes;
+    }
+
+    // Обращения с шагом, превышающим строку кеша, чтобы время цикла зависело от состояния кешей
+    private void touchMemory() {
+        for (int i = 0; i < 16; i++) {
+            position = (position + 67) % MEMORY_SIZE;
+            memory[position] += position ^ i;
+        }
+    }
+
+}
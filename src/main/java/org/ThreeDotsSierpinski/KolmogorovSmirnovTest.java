@@ -1,6 +1,5 @@
 package org.ThreeDotsSierpinski;
 
-import java.util.Arrays;
 import java.util.Random;
 
 public class KolmogorovSmirnovTest {
@@ -40,26 +39,24 @@ public class KolmogorovSmirnovTest {
 
     // Rest of the class remains unchanged...
     public static boolean test(int[] sample, double alpha) {
-        Arrays.sort(sample);
-        double maxDeviation = 0.0;
-        int n = sample.length;
-        for (int i = 0; i < n; i++) {
-            double empiricalCDF = (double) (i + 1) / n;
-            double theoreticalCDF = calculateTheoreticalCDF(sample[i]);
-            double deviation = Math.abs(empiricalCDF - theoreticalCDF);
-            maxDeviation = Math.max(maxDeviation, deviation);
-        }
-        double criticalValue = Math.sqrt(-0.5 * Math.log(alpha / 2)) / Math.sqrt(n);
-        return maxDeviation <= criticalValue;
+        return test(sample, MIN_RANDOM_VALUE, MAX_RANDOM_VALUE, alpha);
     }
 
-    private static double calculateTheoreticalCDF(double value) {
-        if (value < MIN_RANDOM_VALUE) {
-            return 0.0;
-        } else if (value > MAX_RANDOM_VALUE) {
-            return 1.0;
-        } else {
-            return (value - MIN_RANDOM_VALUE) / (double)(MAX_RANDOM_VALUE - MIN_RANDOM_VALUE);
-        }
+    /**
+     * Проверяет выборку на соответствие равномерному распределению на [min, max].
+     * Исходный массив не изменяется.
+     *
+     * @param sample выборка.
+     * @param min    минимальное значение диапазона (включительно).
+     * @param max    максимальное значение диапазона (включительно).
+     * @param alpha  уровень значимости.
+     * @return {@code true}, если гипотеза о равномерности не отвергается.
+     */
+    public static boolean test(int[] sample, long min, long max, double alpha) {
+        // Статистика вычисляется по отсортированной копии выборки
+        double maxDeviation = StatisticalBattery.kolmogorovSmirnovStatistic(sample, min, max);
+
+        // Сравниваем p-значение с уровнем значимости
+        return Distributions.kolmogorovSmirnovPValue(maxDeviation, sample.length) >= alpha;
     }
 }
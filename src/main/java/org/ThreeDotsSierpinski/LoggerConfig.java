@@ -1,6 +1,10 @@
 package org.ThreeDotsSierpinski;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.*;
 import java.util.logging.*;
 
@@ -11,11 +15,21 @@ public class LoggerConfig {
     private static final Logger LOGGER = Logger.getLogger(LoggerConfig.class.getName());
     private static final String LOG_FILE_NAME = "app.log";
     private static final long MAX_LOG_FILE_SIZE = 10 * 1024 * 1024; // 10 MB
+    private static final int MAX_ARCHIVED_LOG_FILES = 10; // Количество хранимых архивных файлов лога
+    private static final int LOG_BUFFER_CAPACITY = 8192; // Емкость буфера асинхронного обработчика
+    private static final String LOG_LEVEL_PROPERTY = "qrng.log.level"; // Системное свойство для уровня логгирования
+    static final String LOG_FILE_PROPERTY = "qrng.log.file"; // Системное свойство для файла лога
+    private static final Level DEFAULT_LOG_LEVEL = Level.INFO;
+    private static final String HANDLER_OBJECT_NAME = "org.ThreeDotsSierpinski:type=AsyncLogHandler";
     private static boolean isInitialized = false;
+    private static AsyncLogHandler asyncHandler;
 
     /**
      * Инициализирует конфигурацию логгера.
-     * Проверяет существование файла лога и его размер. Удаляет существующий лог-файл, если он превышает лимит, и настраивает новый FileHandler.
+     * Записи передаются асинхронному обработчику, который пишет их в файл с ротацией по размеру и по суткам;
+     * существующий лог-файл дописывается, старые архивы удаляются сверх заданного количества.
+     * Файл лога задается системным свойством qrng.log.file (по умолчанию app.log): процессы,
+     * работающие одновременно, должны писать в разные файлы.
      */
     public static synchronized void initializeLogger() {
         if (isInitialized) {
@@ -23,17 +37,10 @@ public class LoggerConfig {
         }
 
         try {
-            // Определение пути к файлу лога
-            Path logFilePath = Paths.get(LOG_FILE_NAME);
-
-            // Проверка размера файла лога и удаление, если он превышает лимит
-            if (Files.exists(logFilePath) && Files.size(logFilePath) > MAX_LOG_FILE_SIZE) {
-                Files.delete(logFilePath);
-            }
-
-            // Инициализация FileHandler с append=false для перезаписи файла лога
-            FileHandler fileHandler = new FileHandler(LOG_FILE_NAME, false);
+            // Файловый обработчик с ротацией, запись в который выполняется фоновым потоком
+            RollingFileHandler fileHandler = new RollingFileHandler(Paths.get(System.getProperty(LOG_FILE_PROPERTY, LOG_FILE_NAME)), MAX_LOG_FILE_SIZE, MAX_ARCHIVED_LOG_FILES);
             fileHandler.setFormatter(new SimpleFormatter());
+            asyncHandler = new AsyncLogHandler(fileHandler, LOG_BUFFER_CAPACITY);
 
             // Получение корневого логгера
             Logger rootLogger = Logger.getLogger("");
@@ -45,9 +52,10 @@ public class LoggerConfig {
                 }
             }
 
-            // Добавление FileHandler к корневому логгеру
-            rootLogger.addHandler(fileHandler);
-            rootLogger.setLevel(Level.ALL); // Установка желаемого уровня логгирования
+            // Добавление асинхронного обработчика к корневому логгеру
+            rootLogger.addHandler(asyncHandler);
+            rootLogger.setLevel(resolveLogLevel()); // Установка желаемого уровня логгирования
+            registerHandlerMBean();
 
             LOGGER.info("Логгирование успешно инициализировано.");
             isInitialized = true;
@@ -56,15 +64,49 @@ public class LoggerConfig {
         }
     }
 
+    // Уровень логгирования из системного свойства qrng.log.level (по умолчанию INFO)
+    private static Level resolveLogLevel() {
+        String value = System.getProperty(LOG_LEVEL_PROPERTY);
+        if (value == null) {
+            return DEFAULT_LOG_LEVEL;
+        }
+        try {
+            return Level.parse(value);
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_LOG_LEVEL;
+        }
+    }
+
+    // Регистрация счетчиков асинхронного обработчика в JMX
+    private static void registerHandlerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(HANDLER_OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(asyncHandler, name);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Не удалось зарегистрировать обработчик логов в JMX.", e);
+        }
+    }
+
     /**
-     * Получает глобальный экземпляр логгера.
+     * Возвращает количество записей лога, отброшенных из-за переполнения буфера.
+     *
+     * @return количество отброшенных записей или 0, если логгирование не инициализировано.
+     */
+    public static synchronized long getDroppedLogRecords() {
+        return asyncHandler != null ? asyncHandler.getDroppedCount() : 0;
+    }
+
+    /**
+     * Получает глобальный экземпляр логгера. Обработчики не подключаются: это делает {@link #initializeLogger()},
+     * который вызывается точкой входа. Записи, сделанные до инициализации, выводятся стандартным
+     * обработчиком JDK в консоль.
      *
      * @return Глобальный Logger.
      */
     public static Logger getLogger() {
-        if (!isInitialized) {
-            initializeLogger();
-        }
         return Logger.getLogger("");
     }
 
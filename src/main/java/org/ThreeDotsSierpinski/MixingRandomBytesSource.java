@@ -0,0 +1,110 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Источник, смешивающий квантовый поток с локальными источниками энтропии.
+ * <p>
+ * Квантовые байты сначала проходят через {@link ToeplitzExtractor}, сжимающий вход в отношении n : m.
+ * Результат складывается по XOR с выходом {@link SecureRandom}, который перед каждой порцией дополнительно
+ * засевается дрожанием времени ({@link JitterEntropySource}). Сумма по XOR независимых источников
+ * распределена не хуже самого качественного из них, поэтому деградация одного источника
+ * не смещает выдаваемые провайдером числа.
+ * <p>
+ * Включается системным свойством {@code qrng.extractor=n:m}, например {@code -Dqrng.extractor=1024:512}:
+ * на каждые m выходных битов у квантового источника запрашивается n битов.
+ */
+public class MixingRandomBytesSource implements RandomBytesSource {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    /**
+     * Системное свойство с размерами блоков экстрактора в битах: {@code вход:выход}.
+     */
+    public static final String EXTRACTOR_PROPERTY = "qrng.extractor";
+
+    private static final String LOG_ENABLED = "Включено смешивание источников: экстрактор Тёплица %d:%d бит.";
+    private static final String INVALID_PROPERTY = "Некорректное значение свойства " + EXTRACTOR_PROPERTY + ": ";
+    private static final String SHORT_RESPONSE = "Квантовый источник вернул %d байт вместо %d.";
+
+    private static final int JITTER_SEED_BYTES = 16; // Байтов дрожания на каждую порцию
+
+    private final RandomBytesSource quantumSource;
+    private final ToeplitzExtractor extractor;
+    private final SecureRandom secureRandom;
+    private final RandomBytesSource jitterSource;
+
+    /**
+     * @param quantumSource квантовый источник.
+     * @param extractor     экстрактор, через который проходит квантовый поток.
+     * @param secureRandom  локальный криптографический генератор.
+     * @param jitterSource  источник дополнительного зерна для {@code secureRandom}.
+     */
+    public MixingRandomBytesSource(RandomBytesSource quantumSource, ToeplitzExtractor extractor,
+                                   SecureRandom secureRandom, RandomBytesSource jitterSource) {
+        this.quantumSource = quantumSource;
+        this.extractor = extractor;
+        this.secureRandom = secureRandom;
+        this.jitterSource = jitterSource;
+    }
+
+    /**
+     * Оборачивает источник смешиванием, если задано свойство {@value #EXTRACTOR_PROPERTY}.
+     *
+     * @param quantumSource квантовый источник.
+     * @return исходный источник или смешивающий источник поверх него.
+     */
+    public static RandomBytesSource wrapIfConfigured(RandomBytesSource quantumSource) {
+        String ratio = System.getProperty(EXTRACTOR_PROPERTY);
+        if (ratio == null) {
+            return quantumSource;
+        }
+        String[] parts = ratio.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException(INVALID_PROPERTY + ratio);
+        }
+        int inputBits;
+        int outputBits;
+        try {
+            inputBits = Integer.parseInt(parts[0].trim());
+            outputBits = Integer.parseInt(parts[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(INVALID_PROPERTY + ratio, e);
+        }
+        if (inputBits <= 0 || outputBits <= 0) {
+            throw new IllegalArgumentException(INVALID_PROPERTY + ratio);
+        }
+        SecureRandom secureRandom = new SecureRandom();
+        // Зерно матрицы (n + m - 1 бит) выбирается локально и не зависит от квантового потока
+        byte[] seed = new byte[ToeplitzExtractor.seedBytes(inputBits, outputBits)];
+        secureRandom.nextBytes(seed);
+        ToeplitzExtractor extractor = new ToeplitzExtractor(seed, inputBits, outputBits);
+        LOGGER.info(String.format(LOG_ENABLED, inputBits, outputBits));
+        return new MixingRandomBytesSource(quantumSource, extractor, secureRandom, new JitterEntropySource());
+    }
+
+    @Override
+    public byte[] fetch(int length) throws IOException {
+        int outputBlockBytes = extractor.getOutputBlockBytes();
+        int blocks = (length + outputBlockBytes - 1) / outputBlockBytes;
+        int required = blocks * extractor.getInputBlockBytes();
+        byte[] quantum = quantumSource.fetch(required);
+        if (quantum.length < required) {
+            throw new IOException(String.format(SHORT_RESPONSE, quantum.length, required));
+        }
+        byte[] extracted = extractor.extract(quantum.length == required ? quantum : Arrays.copyOf(quantum, required));
+
+        byte[] local = new byte[length];
+        synchronized (secureRandom) {
+            secureRandom.setSeed(jitterSource.fetch(JITTER_SEED_BYTES)); // Дополняет, а не заменяет состояние
+            secureRandom.nextBytes(local);
+        }
+        for (int i = 0; i < length; i++) {
+            local[i] ^= extracted[i];
+        }
+        return local;
+    }
+
+}
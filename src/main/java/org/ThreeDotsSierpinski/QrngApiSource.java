@@ -0,0 +1,131 @@
+package org.ThreeDotsSierpinski;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.logging.Logger;
+
+/**
+ * Источник случайных байтов на основе QRNG API ({@code ?length=N&format=HEX}).
+ */
+public class QrngApiSource implements RandomBytesSource {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    // String constants
+    private static final String API_URL = "https://lfdr.de/qrng_api/qrng";
+    private static final String API_URL_PROPERTY = "qrng.api.url"; // Системное свойство для переопределения адреса API
+    private static final String REQUEST_SENT = "Отправка запроса: ";
+    private static final String RESPONSE_RECEIVED = "Получен ответ: ";
+    private static final String RESPONSE_LENGTH = "Получен ответ длиной %d символов.";
+    private static final String ERROR_MESSAGE = "Ошибка при получении случайных чисел: ";
+    private static final String UNEXPECTED_RESPONSE = "Неожиданный ответ от сервера.";
+    private static final String INVALID_HEX_LENGTH = "Некорректная длина HEX-строки.";
+    private static final String INVALID_HEX_CHAR = "Обнаружен некорректный символ в HEX-строке.";
+
+    // Constants for connection configuration
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final int READ_TIMEOUT = 5000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String apiUrl;
+
+    /**
+     * Создает источник с адресом из системного свойства {@code qrng.api.url} или адресом по умолчанию.
+     */
+    public QrngApiSource() {
+        this(System.getProperty(API_URL_PROPERTY, API_URL));
+    }
+
+    /**
+     * @param apiUrl адрес API без параметров запроса.
+     */
+    public QrngApiSource(String apiUrl) {
+        this.apiUrl = apiUrl;
+    }
+
+    /**
+     * @return адрес API, к которому обращается источник.
+     */
+    public String getApiUrl() {
+        return apiUrl;
+    }
+
+    @Override
+    public byte[] fetch(int length) throws IOException {
+        String requestUrl = apiUrl + "?length=" + length + "&format=HEX";
+        LOGGER.info(REQUEST_SENT + requestUrl);
+
+        HttpURLConnection conn;
+        try {
+            URL url = new URI(requestUrl).toURL();
+            conn = (HttpURLConnection) url.openConnection();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        try {
+            conn.setRequestMethod("GET");
+            conn.setConnectTimeout(CONNECT_TIMEOUT);
+            conn.setReadTimeout(READ_TIMEOUT);
+
+            String responseBody = getResponseBody(conn);
+            LOGGER.info(() -> String.format(RESPONSE_LENGTH, responseBody.length()));
+            LOGGER.finest(() -> RESPONSE_RECEIVED + responseBody); // Полный ответ только при детальном логгировании
+
+            JsonNode rootNode = objectMapper.readTree(responseBody);
+            if (rootNode.has("qrn")) {
+                try {
+                    return hexStringToByteArray(rootNode.get("qrn").asText());
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            } else if (rootNode.has("error")) {
+                String errorMsg = rootNode.get("error").asText();
+                LOGGER.severe(ERROR_MESSAGE + errorMsg);
+                throw new IOException(ERROR_MESSAGE + errorMsg);
+            } else {
+                LOGGER.warning(UNEXPECTED_RESPONSE);
+                throw new IOException(UNEXPECTED_RESPONSE);
+            }
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private static @NotNull String getResponseBody(HttpURLConnection conn) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
+        StringBuilder response = new StringBuilder();
+        String responseLine;
+
+        while ((responseLine = in.readLine()) != null) {
+            response.append(responseLine.trim());
+        }
+        in.close();
+        return response.toString();
+    }
+
+    static byte[] hexStringToByteArray(String s) {
+        int len = s.length();
+        if (len % 2 != 0) {
+            throw new IllegalArgumentException(INVALID_HEX_LENGTH);
+        }
+        byte[] data = new byte[len / 2];
+        for (int i = 0; i < len; i += 2) {
+            int high = Character.digit(s.charAt(i), 16);
+            int low = Character.digit(s.charAt(i + 1), 16);
+            if (high == -1 || low == -1) {
+                throw new IllegalArgumentException(INVALID_HEX_CHAR);
+            }
+            data[i / 2] = (byte) ((high << 4) + low);
+        }
+        return data;
+    }
+
+}
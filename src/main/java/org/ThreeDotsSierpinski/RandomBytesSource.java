@@ -0,0 +1,20 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.IOException;
+
+/**
+ * Источник случайных байтов, из которого {@link RandomNumberProvider} пополняет свою очередь.
+ */
+@FunctionalInterface
+public interface RandomBytesSource {
+
+    /**
+     * Получает очередную порцию случайных байтов.
+     *
+     * @param length запрашиваемое количество байтов.
+     * @return полученные байты.
+     * @throws IOException если данные получить не удалось; провайдер повторит попытку.
+     */
+    byte[] fetch(int length) throws IOException;
+
+}
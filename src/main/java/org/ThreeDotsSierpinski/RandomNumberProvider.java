@@ -1,69 +1,117 @@
 package org.ThreeDotsSierpinski;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.jetbrains.annotations.NotNull;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
 import java.util.concurrent.*;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
-public class RandomNumberProvider {
+public class RandomNumberProvider implements RandomNumberSupplier {
     private static final Logger LOGGER = LoggerConfig.getLogger();
 
+    /**
+     * Параметры очереди и загрузки.
+     *
+     * @param queueSize        емкость очереди чисел; загрузка следующей порции начинается,
+     *                         когда в очереди остается меньше половины
+     * @param batchSize        количество байтов, запрашиваемых у источника за один раз
+     * @param maxRetryAttempts количество попыток загрузки одной порции
+     */
+    public record Config(int queueSize, int batchSize, int maxRetryAttempts) {
+
+        /**
+         * Параметры по умолчанию.
+         */
+        public static final Config DEFAULT = new Config(2000, 1024, 3);
+
+        public Config {
+            if (queueSize <= 0 || batchSize <= 0 || maxRetryAttempts <= 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Параметры должны быть положительными: queueSize=%d, batchSize=%d, maxRetryAttempts=%d",
+                        queueSize, batchSize, maxRetryAttempts));
+            }
+        }
+    }
+
     // String constants
-    private static final String API_URL = "https://lfdr.de/qrng_api/qrng";
     private static final String MAX_REQUESTS_WARNING = "Достигнуто максимальное количество запросов к API: ";
-    private static final String REQUEST_SENT = "Отправка запроса: ";
-    private static final String RESPONSE_RECEIVED = "Получен ответ: ";
     private static final String QUEUE_ADD_INTERRUPT = "Поток был прерван при добавлении числа в очередь: ";
     private static final String API_REQUEST_COUNT = "Количество запросов к API: ";
-    private static final String ERROR_MESSAGE = "Ошибка при получении случайных чисел: ";
-    private static final String UNEXPECTED_RESPONSE = "Неожиданный ответ от сервера.";
     private static final String RETRY_WARNING = "Попытка %d не удалась. Не удалось получить данные из QRNG API.";
     private static final String NO_RANDOM_NUMBERS = "Нет доступных случайных чисел.";
     private static final String MAX_REQUESTS_EXCEEDED = "Достигнуто максимальное количество запросов к API и нет доступных случайных чисел.";
     private static final String WAIT_INTERRUPTED = "Ожидание случайного числа было прервано.";
     private static final String EXECUTOR_SERVICE_NOT_TERMINATED = "ExecutorService не завершился.";
     private static final String EXECUTOR_SERVICE_SHUTDOWN = "ExecutorService успешно завершен.";
-    private static final String INVALID_HEX_LENGTH = "Некорректная длина HEX-строки.";
-    private static final String INVALID_HEX_CHAR = "Обнаружен некорректный символ в HEX-строке.";
 
     // Constants for API and queue configuration
     private static final int MAX_API_REQUESTS = 25;
-    private static final int QUEUE_SIZE = 2000;
-    private static final int MAX_RETRY_ATTEMPTS = 3;
     private final BlockingQueue<Integer> randomNumbersQueue;
-    private final ObjectMapper objectMapper;
+    private final RandomBytesSource randomBytesSource; // Источник случайных байтов
+    private final int maxApiRequests; // Максимальное количество запросов к источнику
+    private final int batchSize; // Количество байтов, запрашиваемых у источника за один раз
+    private final int maxRetryAttempts; // Количество попыток загрузки одной порции
+    private final int refillThreshold; // Размер очереди, ниже которого загружается следующая порция
     private int apiRequestCount = 0;
 
     private final Lock lock = new ReentrantLock();
+    private final Condition loadFinished = lock.newCondition(); // Сигнал о завершении загрузки порции
     private final ExecutorService executorService;
     private volatile boolean isLoading = false;
+    private long finishedLoads = 0; // Количество завершенных загрузок (успешных и неудачных); защищено lock
+    private final UniformityMonitor uniformityMonitor; // Монитор равномерности выдаваемых чисел
 
     public RandomNumberProvider() {
-        randomNumbersQueue = new LinkedBlockingQueue<>(QUEUE_SIZE);
-        objectMapper = new ObjectMapper();
+        this(MixingRandomBytesSource.wrapIfConfigured(new QrngApiSource()), MAX_API_REQUESTS);
+    }
+
+    /**
+     * Создает провайдер, пополняющий очередь из указанного источника.
+     *
+     * @param randomBytesSource источник случайных байтов.
+     * @param maxApiRequests    максимальное количество запросов к источнику.
+     */
+    public RandomNumberProvider(RandomBytesSource randomBytesSource, int maxApiRequests) {
+        this(randomBytesSource, maxApiRequests, Config.DEFAULT);
+    }
+
+    /**
+     * Создает провайдер с заданными параметрами очереди и загрузки.
+     *
+     * @param randomBytesSource источник случайных байтов.
+     * @param maxApiRequests    максимальное количество запросов к источнику.
+     * @param config            параметры очереди и загрузки.
+     */
+    public RandomNumberProvider(RandomBytesSource randomBytesSource, int maxApiRequests, Config config) {
+        this.randomBytesSource = randomBytesSource;
+        this.maxApiRequests = maxApiRequests;
+        batchSize = config.batchSize();
+        maxRetryAttempts = config.maxRetryAttempts();
+        refillThreshold = config.queueSize() / 2;
+        randomNumbersQueue = new LinkedBlockingQueue<>(config.queueSize());
         executorService = Executors.newFixedThreadPool(2);
+        uniformityMonitor = new UniformityMonitor();
+        uniformityMonitor.start(Integer.toHexString(System.identityHashCode(this)));
         loadInitialDataAsync();
     }
 
+    /**
+     * @return монитор равномерности чисел, выданных этим провайдером.
+     */
+    public UniformityMonitor getUniformityMonitor() {
+        return uniformityMonitor;
+    }
+
     private void loadInitialDataAsync() {
         lock.lock();
         try {
-            if (isLoading || apiRequestCount >= MAX_API_REQUESTS) {
-                if (apiRequestCount >= MAX_API_REQUESTS) {
-                    LOGGER.warning(MAX_REQUESTS_WARNING + MAX_API_REQUESTS);
+            if (isLoading || apiRequestCount >= maxApiRequests) {
+                if (apiRequestCount >= maxApiRequests) {
+                    LOGGER.warning(MAX_REQUESTS_WARNING + maxApiRequests);
                 }
                 return;
             }
@@ -78,54 +126,29 @@ public class RandomNumberProvider {
         int retryAttempts = 0;
         boolean success = false;
 
-        while (retryAttempts < MAX_RETRY_ATTEMPTS && !success) {
+        while (retryAttempts < maxRetryAttempts && !success) {
             try {
-                int n = 1024;
-                String requestUrl = API_URL + "?length=" + n + "&format=HEX";
-                LOGGER.info(REQUEST_SENT + requestUrl);
-
-                URI uri = new URI(requestUrl);
-                URL url = uri.toURL();
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setConnectTimeout(5000);
-                conn.setReadTimeout(5000);
-
-                String responseBody = getResponseBody(conn);
-                LOGGER.info(RESPONSE_RECEIVED + responseBody);
-
-                JsonNode rootNode = objectMapper.readTree(responseBody);
-
-                if (rootNode.has("qrn")) {
-                    String hexData = rootNode.get("qrn").asText();
-                    byte[] byteArray = hexStringToByteArray(hexData);
-
-                    for (byte b : byteArray) {
-                        int num = b & 0xFF;
-                        try {
-                            randomNumbersQueue.put(num);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            LOGGER.log(Level.WARNING, QUEUE_ADD_INTERRUPT + num, e);
-                        }
-                    }
-                    lock.lock();
+                byte[] byteArray = randomBytesSource.fetch(batchSize);
+
+                for (byte b : byteArray) {
+                    int num = b & 0xFF;
                     try {
-                        apiRequestCount++;
-                    } finally {
-                        lock.unlock();
+                        randomNumbersQueue.put(num);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        LOGGER.log(Level.WARNING, QUEUE_ADD_INTERRUPT + num, e);
                     }
-                    LOGGER.info(API_REQUEST_COUNT + apiRequestCount);
-                    success = true;
-                } else if (rootNode.has("error")) {
-                    String errorMsg = rootNode.get("error").asText();
-                    LOGGER.severe(ERROR_MESSAGE + errorMsg);
-                } else {
-                    LOGGER.warning(UNEXPECTED_RESPONSE);
                 }
-
-                conn.disconnect();
-            } catch (URISyntaxException | IOException e) {
+                lock.lock();
+                try {
+                    apiRequestCount++;
+                    loadFinished.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                LOGGER.info(API_REQUEST_COUNT + apiRequestCount);
+                success = true;
+            } catch (IOException e) {
                 retryAttempts++;
                 LOGGER.log(Level.WARNING, String.format(RETRY_WARNING, retryAttempts), e);
             }
@@ -134,58 +157,24 @@ public class RandomNumberProvider {
         lock.lock();
         try {
             isLoading = false;
+            finishedLoads++;
+            loadFinished.signalAll();
         } finally {
             lock.unlock();
         }
-        if (randomNumbersQueue.size() < 1000 && apiRequestCount < MAX_API_REQUESTS) {
+        if (randomNumbersQueue.size() < refillThreshold && apiRequestCount < maxApiRequests) {
             loadInitialDataAsync();
         }
     }
 
-    private static @NotNull String getResponseBody(HttpURLConnection conn) throws IOException {
-        BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String responseLine;
-
-        while ((responseLine = in.readLine()) != null) {
-            response.append(responseLine.trim());
-        }
-        in.close();
-        return response.toString();
-    }
-
-    private byte[] hexStringToByteArray(String s) {
-        int len = s.length();
-        if (len % 2 != 0) {
-            throw new IllegalArgumentException(INVALID_HEX_LENGTH);
-        }
-        byte[] data = new byte[len / 2];
-        for (int i = 0; i < len; i += 2) {
-            int high = Character.digit(s.charAt(i), 16);
-            int low = Character.digit(s.charAt(i + 1), 16);
-            if (high == -1 || low == -1) {
-                throw new IllegalArgumentException(INVALID_HEX_CHAR);
-            }
-            data[i / 2] = (byte) ((high << 4) + low);
-        }
-        return data;
-    }
-
-    public int getNextRandomInteger() {
-        int randomNum1 = getNextRandomNumber();
-        int randomNum2 = getNextRandomNumber();
-        int randomNum3 = getNextRandomNumber();
-        int randomNum4 = getNextRandomNumber();
-        return (randomNum1 << 24) | (randomNum2 << 16) | (randomNum3 << 8) | randomNum4;
-    }
-
+    @Override
     public int getNextRandomNumber() {
         try {
             Integer nextNumber = randomNumbersQueue.poll(5, TimeUnit.SECONDS);
             if (nextNumber == null) {
                 lock.lock();
                 try {
-                    if (apiRequestCount >= MAX_API_REQUESTS) {
+                    if (apiRequestCount >= maxApiRequests) {
                         throw new NoSuchElementException(MAX_REQUESTS_EXCEEDED);
                     }
                 } finally {
@@ -197,9 +186,10 @@ public class RandomNumberProvider {
                     throw new NoSuchElementException(NO_RANDOM_NUMBERS);
                 }
             }
-            if (randomNumbersQueue.size() < 1000) {
+            if (randomNumbersQueue.size() < refillThreshold) {
                 loadInitialDataAsync();
             }
+            uniformityMonitor.record(nextNumber);
             return nextNumber;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -207,14 +197,72 @@ public class RandomNumberProvider {
         }
     }
 
-    public long getNextRandomNumberInRange(long min, long max) {
-        int randomNum = getNextRandomInteger();
-        double normalized = (randomNum - (double) Integer.MIN_VALUE) / ((double) Integer.MAX_VALUE - (double) Integer.MIN_VALUE);
-        long range = max - min;
-        return min + (long) (normalized * range);
+    /**
+     * Ожидает завершения текущей загрузки порции. Новую загрузку метод не запускает: повторные загрузки
+     * выполняются обычным путем пополнения очереди. Если загрузка не идет или завершилась без данных
+     * (все попытки не удались), возвращает {@code false}, не дожидаясь окончания таймаута.
+     */
+    @Override
+    public boolean awaitSupply(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            long awaitedLoad = finishedLoads; // Загрузка, идущая в момент вызова
+            while (randomNumbersQueue.isEmpty()) {
+                if (!isLoading || finishedLoads > awaitedLoad || nanos <= 0) {
+                    return false;
+                }
+                nanos = loadFinished.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return числа в очереди плюс байты, которые еще можно запросить у источника.
+     */
+    @Override
+    public long getRemainingSupply() {
+        lock.lock();
+        try {
+            return randomNumbersQueue.size() + (long) Math.max(0, maxApiRequests - apiRequestCount) * batchSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Заполняет буфер числами из очереди, по одному байту на число. Первое число ожидается так же,
+     * как в {@link #getNextRandomNumber()}; остальные берутся только из уже загруженных, поэтому
+     * при частично заполненной очереди порция может быть неполной. Каждое число выдается один раз.
+     *
+     * @param target буфер, заполняемый от текущей позиции до лимита.
+     * @return количество записанных байтов.
+     * @throws NoSuchElementException если случайные числа закончились.
+     */
+    public int fill(ByteBuffer target) {
+        if (!target.hasRemaining()) {
+            return 0;
+        }
+        target.put((byte) getNextRandomNumber());
+        int written = 1;
+        Integer nextNumber;
+        while (target.hasRemaining() && (nextNumber = randomNumbersQueue.poll()) != null) {
+            uniformityMonitor.record(nextNumber);
+            target.put(nextNumber.byteValue());
+            written++;
+        }
+        if (randomNumbersQueue.size() < refillThreshold) {
+            loadInitialDataAsync();
+        }
+        return written;
     }
 
+    @Override
     public void shutdown() {
+        uniformityMonitor.shutdown();
         executorService.shutdown();
         try {
             if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
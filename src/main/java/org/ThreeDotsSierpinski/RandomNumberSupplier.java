@@ -0,0 +1,81 @@
+package org.ThreeDotsSierpinski;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поставщик случайных чисел для {@link DotController}.
+ * Реализуется локальным {@link RandomNumberProvider} и клиентом общего пула {@link RandomnessClient}.
+ */
+public interface RandomNumberSupplier {
+
+    /**
+     * @return очередное случайное число в диапазоне [0, 255].
+     * @throws NoSuchElementException если случайные числа закончились.
+     */
+    int getNextRandomNumber();
+
+    /**
+     * @return случайное 32-битное число, собранное из четырех байтов.
+     * @throws NoSuchElementException если случайные числа закончились.
+     */
+    default int getNextRandomInteger() {
+        int randomNum1 = getNextRandomNumber();
+        int randomNum2 = getNextRandomNumber();
+        int randomNum3 = getNextRandomNumber();
+        int randomNum4 = getNextRandomNumber();
+        return (randomNum1 << 24) | (randomNum2 << 16) | (randomNum3 << 8) | randomNum4;
+    }
+
+    /**
+     * @param min нижняя граница диапазона.
+     * @param max верхняя граница диапазона.
+     * @return случайное число в диапазоне [min, max].
+     * @throws NoSuchElementException если случайные числа закончились.
+     */
+    default long getNextRandomNumberInRange(long min, long max) {
+        return scaleToRange(getNextRandomInteger(), min, max);
+    }
+
+    /**
+     * Отображает 32-битное случайное число на диапазон [min, max] так же, как {@link #getNextRandomNumberInRange}.
+     *
+     * @param randomNum случайное 32-битное число.
+     * @param min       нижняя граница диапазона.
+     * @param max       верхняя граница диапазона.
+     * @return число в диапазоне [min, max].
+     */
+    static long scaleToRange(int randomNum, long min, long max) {
+        double normalized = (randomNum - (double) Integer.MIN_VALUE) / ((double) Integer.MAX_VALUE - (double) Integer.MIN_VALUE);
+        long range = max - min;
+        return min + (long) (normalized * range);
+    }
+
+    /**
+     * @return оценка количества байтов, которые поставщик еще может выдать,
+     * или {@link Long#MAX_VALUE}, если оценка недоступна. Вызывается из потока отрисовки при каждой выдаче
+     * через {@link EntropyBudget}, поэтому не должен обращаться к источнику или ждать его.
+     */
+    default long getRemainingSupply() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Ожидает, пока поставщик сможет выдать число без обращения к источнику. Число при этом не расходуется.
+     *
+     * @param timeout максимальное время ожидания.
+     * @param unit    единица измерения времени ожидания.
+     * @return {@code true}, если числа доступны; {@code false}, если они не появились за время ожидания
+     * или закончились.
+     * @throws InterruptedException если ожидание прервано.
+     */
+    default boolean awaitSupply(long timeout, TimeUnit unit) throws InterruptedException {
+        return true;
+    }
+
+    /**
+     * Освобождает ресурсы поставщика.
+     */
+    void shutdown();
+
+}
@@ -0,0 +1,250 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Клиент {@link RandomnessDaemon}: получает случайные байты из общего пула порциями
+ * и выдает их через те же методы, что и {@link RandomNumberProvider}.
+ * <p>
+ * Полученная порция хранится в direct-буфере и расходуется побайтно; каждый байт выдается один раз.
+ * Оставшийся запас сервиса запрашивается при подключении и вместе с каждой порцией; {@link #getRemainingSupply()}
+ * читает сохраненное значение без блокировок и обращений к сервису и отстает от него не больше чем на одну порцию.
+ * <p>
+ * Обмен с сервисом выполняется под {@link ReentrantLock}, а не {@code synchronized}: фоновый запрос
+ * из {@link #awaitSupply} идет в виртуальном потоке и не должен занимать поток-носитель на время ввода-вывода.
+ * После сбоя посреди обмена соединение закрывается, так как в нем могут остаться непрочитанные байты ответа;
+ * следующий запрос подключается заново.
+ */
+public class RandomnessClient implements RandomNumberSupplier {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    // Строковые константы
+    private static final String LOG_CONNECTED = "Подключение к сервису случайных чисел: ";
+    private static final String LOG_CLOSE_ERROR = "Ошибка при закрытии соединения с сервисом случайных чисел.";
+    private static final String NO_RANDOM_NUMBERS = "Сервис случайных чисел не вернул данных.";
+    private static final String EXCHANGE_FAILED = "Ошибка обмена с сервисом случайных чисел.";
+    private static final String LOG_RECONNECTED = "Повторное подключение к сервису случайных чисел: ";
+    private static final String INVALID_LENGTH = "Некорректная длина порции в ответе сервиса: ";
+
+    private static final int DEFAULT_BATCH_SIZE = 4096; // Количество байтов, запрашиваемых за один раз
+
+    private final SocketAddress address;
+    private volatile SocketChannel channel; // null после сбоя обмена, до следующего подключения
+    private volatile boolean closed = false;
+    private final int batchSize;
+    private final ByteBuffer request = ByteBuffer.allocate(Integer.BYTES);
+    private final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+    private final ByteBuffer supplyReply = ByteBuffer.allocate(Long.BYTES);
+    private final ReentrantLock lock = new ReentrantLock(); // Защищает соединение, буферы и порцию
+    private long serviceSupply; // Запас сервиса на момент последнего запроса
+    private volatile long remainingSupply; // Запас сервиса плюс невыданные байты порции
+    private CompletableFuture<Void> pendingRefill; // Фоновый запрос порции из awaitSupply или null
+    private final ByteBuffer batch; // Текущая порция; позиция указывает на первый невыданный байт
+
+    /**
+     * @param address адрес сервиса (Unix domain socket или loopback-порт).
+     * @throws IOException если подключиться не удалось.
+     */
+    public RandomnessClient(SocketAddress address) throws IOException {
+        this(address, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param address   адрес сервиса (Unix domain socket или loopback-порт).
+     * @param batchSize количество байтов, запрашиваемых за один раз.
+     * @throws IOException если подключиться не удалось.
+     */
+    public RandomnessClient(SocketAddress address, int batchSize) throws IOException {
+        if (batchSize <= 0 || batchSize > RandomnessDaemon.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Размер порции должен быть от 1 до "
+                    + RandomnessDaemon.MAX_BATCH_SIZE + ": " + batchSize);
+        }
+        this.address = address;
+        this.batchSize = batchSize;
+        batch = ByteBuffer.allocateDirect(batchSize).limit(0);
+        channel = SocketChannel.open(address);
+        try {
+            serviceSupply = querySupply();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        updateRemainingSupply();
+        LOGGER.info(LOG_CONNECTED + address);
+    }
+
+    @Override
+    public int getNextRandomNumber() {
+        lock.lock();
+        try {
+            if (!batch.hasRemaining()) {
+                refill();
+            }
+            int value = batch.get() & 0xFF;
+            updateRemainingSupply();
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запрашивает порцию заранее, если текущая израсходована. Запрос выполняется в виртуальном потоке,
+     * а ожидание — и доступа к соединению, и ответа — ограничено {@code timeout}; по истечении таймаута
+     * запрос продолжается в фоне, и полученная порция будет выдана следующими вызовами.
+     */
+    @Override
+    public boolean awaitSupply(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!lock.tryLock(timeout, unit)) {
+            return false;
+        }
+        CompletableFuture<Void> refill;
+        try {
+            if (batch.hasRemaining()) {
+                return true;
+            }
+            if (pendingRefill == null) {
+                // Поток запроса получит блокировку только после выхода из этого блока
+                pendingRefill = CompletableFuture.runAsync(this::refillInBackground, Thread.ofVirtual()::start);
+            }
+            refill = pendingRefill;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            refill.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    // Запрос порции, запущенный awaitSupply
+    private void refillInBackground() {
+        lock.lock();
+        try {
+            if (!batch.hasRemaining()) {
+                refill();
+            }
+        } finally {
+            pendingRefill = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return невыданные байты текущей порции плюс запас сервиса на момент ее получения.
+     * Не блокируется: значение обновляется при каждой выдаче и каждом запросе порции.
+     */
+    @Override
+    public long getRemainingSupply() {
+        return remainingSupply;
+    }
+
+    // Вызывается под блокировкой после изменения порции или запаса сервиса
+    private void updateRemainingSupply() {
+        remainingSupply = serviceSupply == Long.MAX_VALUE ? Long.MAX_VALUE : serviceSupply + batch.remaining();
+    }
+
+    // Запрашивает у сервиса оставшийся запас
+    private long querySupply() throws IOException {
+        SocketChannel current = connection();
+        request.clear().putInt(RandomnessDaemon.SUPPLY_REQUEST).flip();
+        while (request.hasRemaining()) {
+            current.write(request);
+        }
+        if (!RandomnessDaemon.readFully(current, supplyReply.clear())) {
+            throw new EOFException();
+        }
+        return supplyReply.flip().getLong();
+    }
+
+    // Запрашивает у сервиса новую порцию байтов
+    private void refill() {
+        try {
+            SocketChannel current = connection();
+            request.clear().putInt(batchSize).flip();
+            while (request.hasRemaining()) {
+                current.write(request);
+            }
+            if (!RandomnessDaemon.readFully(current, header.clear())) {
+                throw new EOFException();
+            }
+            int length = header.flip().getInt();
+            if (length == 0) {
+                serviceSupply = 0;
+                throw new NoSuchElementException(NO_RANDOM_NUMBERS);
+            }
+            if (length < 0 || length > batchSize) {
+                throw new IOException(INVALID_LENGTH + length);
+            }
+            batch.clear().limit(length);
+            if (!RandomnessDaemon.readFully(current, batch)) {
+                throw new EOFException();
+            }
+            batch.flip();
+            serviceSupply = querySupply();
+        } catch (IOException e) {
+            disconnect();
+            batch.limit(0);
+            serviceSupply = 0;
+            throw new NoSuchElementException(EXCHANGE_FAILED, e);
+        } finally {
+            updateRemainingSupply();
+        }
+    }
+
+    // Текущее соединение; после сбоя обмена открывается новое
+    private SocketChannel connection() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (channel == null) {
+            channel = SocketChannel.open(address);
+            LOGGER.info(LOG_RECONNECTED + address);
+        }
+        return channel;
+    }
+
+    // Закрывает соединение, состояние которого после сбоя неизвестно
+    private void disconnect() {
+        SocketChannel broken = channel;
+        channel = null;
+        if (broken != null) {
+            try {
+                broken.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, LOG_CLOSE_ERROR, e);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        closed = true;
+        SocketChannel current = channel;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, LOG_CLOSE_ERROR, e);
+        }
+    }
+
+}
@@ -0,0 +1,259 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Локальный сервис, раздающий случайные байты одного {@link RandomNumberProvider} нескольким процессам.
+ * <p>
+ * Протокол двоичный: клиент отправляет запрос из одного int (количество байтов, от 1 до {@link #MAX_BATCH_SIZE}),
+ * сервис отвечает int n и n байтами. Ответ с n = 0 означает, что случайные числа закончились.
+ * Порция может быть короче запрошенной, если очередь провайдера заполнена частично.
+ * Запрос {@link #SUPPLY_REQUEST} возвращает long — оставшийся запас провайдера
+ * ({@link RandomNumberProvider#getRemainingSupply()}); по нему клиенты соблюдают резервы {@link EntropyBudget}.
+ * <p>
+ * Каждое соединение обслуживается отдельным виртуальным потоком с собственным direct-буфером: байты
+ * переносятся из очереди провайдера прямо в буфер ответа и отправляются в канал без промежуточных копий.
+ * Каждый байт извлекается из очереди провайдера ровно один раз, поэтому ни один байт не выдается
+ * двум клиентам или одному клиенту повторно.
+ * <p>
+ * Сервис слушает Unix domain socket (адрес — путь к файлу) или loopback-порт (адрес — число).
+ */
+public class RandomnessDaemon implements AutoCloseable {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    /**
+     * Системное свойство с адресом сервиса: путь к Unix domain socket или номер loopback-порта.
+     */
+    public static final String ADDRESS_PROPERTY = "qrng.daemon";
+
+    /**
+     * Максимальное количество байтов в одном ответе.
+     */
+    public static final int MAX_BATCH_SIZE = 64 * 1024;
+
+    /**
+     * Запрос оставшегося запаса вместо порции байтов.
+     */
+    public static final int SUPPLY_REQUEST = 0;
+
+    // Строковые константы
+    private static final String LOG_STARTED = "Сервис случайных чисел слушает адрес: ";
+    private static final String LOG_CLIENT_CONNECTED = "Клиент #%d подключен.";
+    private static final String LOG_CLIENT_DISCONNECTED = "Клиент #%d отключен, выдано байтов: %d.";
+    private static final String LOG_CLIENT_ERROR = "Ошибка обмена с клиентом #%d.";
+    private static final String LOG_ACCEPT_ERROR = "Ошибка при приеме соединения.";
+    private static final String LOG_EXHAUSTED = "Случайные числа закончились, клиент #%d получил пустой ответ.";
+    private static final String LOG_CLOSE_ERROR = "Ошибка при остановке сервиса случайных чисел.";
+    private static final String LOG_STOPPED = "Сервис случайных чисел остановлен.";
+    private static final String INVALID_REQUEST = "Некорректный размер запроса: ";
+
+    private final RandomNumberProvider provider;
+    private final ServerSocketChannel serverChannel;
+    private final SocketAddress localAddress;
+    private final ExecutorService connectionExecutor;
+    private final Thread acceptThread;
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    /**
+     * Запускает сервис.
+     *
+     * @param provider провайдер, из очереди которого раздаются байты.
+     * @param address  {@link UnixDomainSocketAddress} или {@link InetSocketAddress}.
+     * @throws IOException если адрес не удалось занять.
+     */
+    public RandomnessDaemon(RandomNumberProvider provider, SocketAddress address) throws IOException {
+        this.provider = provider;
+        if (address instanceof UnixDomainSocketAddress unixAddress) {
+            Files.deleteIfExists(unixAddress.getPath()); // Файл сокета остается после аварийного завершения
+            serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            serverChannel = ServerSocketChannel.open();
+        }
+        serverChannel.bind(address);
+        localAddress = serverChannel.getLocalAddress();
+        connectionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        acceptThread = Thread.ofVirtual().name("randomness-daemon-accept").start(this::acceptConnections);
+        LOGGER.info(LOG_STARTED + localAddress);
+    }
+
+    /**
+     * Разбирает адрес сервиса.
+     *
+     * @param address номер loopback-порта или путь к Unix domain socket.
+     * @return адрес сокета.
+     */
+    public static SocketAddress parseAddress(String address) {
+        if (!address.isEmpty() && address.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        return UnixDomainSocketAddress.of(Path.of(address));
+    }
+
+    /**
+     * @return фактический адрес сервиса (с выбранным портом, если был указан порт 0).
+     */
+    public SocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public int getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    public long getBytesServed() {
+        return bytesServed.get();
+    }
+
+    private void acceptConnections() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                int clientId = connectionCount.incrementAndGet();
+                connectionExecutor.submit(() -> serve(channel, clientId));
+            } catch (ClosedChannelException e) {
+                return; // Сервис остановлен
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, LOG_ACCEPT_ERROR, e);
+            }
+        }
+    }
+
+    // Цикл обработки запросов одного клиента
+    private void serve(SocketChannel channel, int clientId) {
+        activeConnections.incrementAndGet();
+        LOGGER.fine(() -> String.format(LOG_CLIENT_CONNECTED, clientId));
+        ByteBuffer request = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer response = ByteBuffer.allocateDirect(Integer.BYTES + MAX_BATCH_SIZE);
+        long served = 0;
+        try (channel) {
+            while (readFully(channel, request.clear())) {
+                int requested = request.flip().getInt();
+                if (requested == SUPPLY_REQUEST) {
+                    response.clear().putLong(provider.getRemainingSupply()).flip();
+                    while (response.hasRemaining()) {
+                        channel.write(response);
+                    }
+                    continue;
+                }
+                if (requested < 0 || requested > MAX_BATCH_SIZE) {
+                    throw new IOException(INVALID_REQUEST + requested);
+                }
+                response.clear().position(Integer.BYTES).limit(Integer.BYTES + requested);
+                int written;
+                try {
+                    written = provider.fill(response);
+                } catch (NoSuchElementException e) {
+                    written = 0;
+                    LOGGER.warning(String.format(LOG_EXHAUSTED, clientId));
+                }
+                served += written;
+                bytesServed.addAndGet(written);
+                response.putInt(0, written).flip();
+                while (response.hasRemaining()) {
+                    channel.write(response);
+                }
+            }
+        } catch (IOException e) {
+            if (serverChannel.isOpen()) {
+                LOGGER.log(Level.WARNING, String.format(LOG_CLIENT_ERROR, clientId), e);
+            }
+        } finally {
+            activeConnections.decrementAndGet();
+            long total = served;
+            LOGGER.fine(() -> String.format(LOG_CLIENT_DISCONNECTED, clientId, total));
+        }
+    }
+
+    /**
+     * Читает буфер до конца.
+     *
+     * @return {@code false}, если клиент закрыл соединение до начала сообщения.
+     * @throws EOFException если соединение закрыто посреди сообщения.
+     */
+    static boolean readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        int initial = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.remaining() == initial) {
+                    return false;
+                }
+                throw new EOFException();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Останавливает прием соединений и закрывает текущие. Провайдер не останавливается.
+     */
+    @Override
+    public void close() {
+        try {
+            serverChannel.close();
+            acceptThread.join();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, LOG_CLOSE_ERROR, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connectionExecutor.shutdownNow();
+        if (localAddress instanceof UnixDomainSocketAddress unixAddress) {
+            try {
+                Files.deleteIfExists(unixAddress.getPath());
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, LOG_CLOSE_ERROR, e);
+            }
+        }
+        LOGGER.info(LOG_STOPPED);
+    }
+
+    /**
+     * Запускает сервис с провайдером QRNG API.
+     *
+     * @param args адрес сервиса; если не указан, берется из свойства {@value #ADDRESS_PROPERTY}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoggerConfig.initializeLogger();
+        String address = args.length > 0 ? args[0] : System.getProperty(ADDRESS_PROPERTY);
+        if (address == null) {
+            throw new IllegalArgumentException("Не указан адрес сервиса: путь к сокету или номер порта.");
+        }
+        RandomNumberProvider provider = new RandomNumberProvider();
+        RandomnessDaemon daemon = new RandomnessDaemon(provider, parseAddress(address));
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            daemon.close();
+            provider.shutdown();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+}
@@ -0,0 +1,395 @@
+package org.ThreeDotsSierpinski;
+
+import javax.swing.*;
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Класс для периодического сохранения состояния отрисовки в файл, отображенный в память,
+ * и его восстановления при запуске приложения.
+ * <p>
+ * Файл состоит из двух слотов одинакового формата: заголовок фиксированного размера, затем растр
+ * буферного изображения, разбитый на фрагменты {@link DotController#TILE_SIZE} x {@link DotController#TILE_SIZE}
+ * (каждый фрагмент хранится непрерывно), затем числа и позиции правого треугольника и состояние
+ * оценки фрактальной размерности.
+ * Контрольные точки записываются в слоты поочередно, в каждый — только фрагменты, измененные
+ * с момента предыдущей записи в этот слот. Нечетный номер последовательности в заголовке слота означает
+ * незавершенную запись; при восстановлении выбирается завершенный слот с наибольшим номером, поэтому
+ * сбой во время записи теряет не больше одной контрольной точки.
+ */
+public class RenderCheckpoint {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    // Строковые константы
+    private static final String SNAPSHOT_FILE_NAME = "render.snapshot";
+    private static final String LOG_OPEN_FAILED = "Не удалось открыть файл контрольной точки: ";
+    private static final String LOG_RESTORED = "Состояние восстановлено из контрольной точки за %d мс (выборка %d).";
+    private static final String LOG_RESTORE_SKIPPED = "Контрольная точка отсутствует или несовместима, запуск с нуля.";
+    private static final String LOG_RESTORE_INCOMPLETE = "Контрольные точки не были завершены, запуск с нуля.";
+    private static final String LOG_RESTORE_PREVIOUS = "Последняя контрольная точка не была завершена, используется предыдущая.";
+    private static final String LOG_RESTORE_CORRUPT = "Некорректный заголовок контрольной точки: %d чисел, %d координат.";
+    private static final String LOG_RESTORE_CORRUPT_DIMENSION = "Некорректное состояние оценки размерности: %d точек.";
+    private static final String LOG_CHECKPOINT_WRITTEN = "Контрольная точка записана: %d фрагментов за %d мс.";
+    private static final String LOG_CHECKPOINT_FAILED = "Не удалось записать контрольную точку.";
+    private static final String LOG_FINAL_CHECKPOINT_FAILED = "Не удалось дождаться записи финальной контрольной точки.";
+
+    // Константы формата файла
+    private static final int MAGIC = 0x51524E47; // "QRNG"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 64;
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_TILE_SIZE = 8;
+    private static final int OFFSET_TILE_COUNT = 12;
+    static final int OFFSET_SEQUENCE = 16;
+    private static final int OFFSET_POINT_X = 24;
+    private static final int OFFSET_POINT_Y = 28;
+    private static final int OFFSET_INDEX = 32;
+    private static final int OFFSET_HAS_VALUE = 36;
+    private static final int OFFSET_VALUE = 40;
+    static final int OFFSET_NUMBERS_COUNT = 48;
+    private static final int OFFSET_POSITIONS_COUNT = 52;
+
+    private static final int TILE_SIZE = DotController.TILE_SIZE;
+    private static final int TILES_PER_ROW = DotController.TILES_PER_ROW;
+    private static final int TILE_COUNT = DotController.TILE_COUNT;
+    private static final int TILE_PIXELS = TILE_SIZE * TILE_SIZE;
+    private static final int IMAGE_SIZE = TILES_PER_ROW * TILE_SIZE;
+    private static final long RASTER_BYTES = (long) TILE_COUNT * TILE_PIXELS * Integer.BYTES;
+    private static final long TRAILER_OFFSET = HEADER_SIZE + RASTER_BYTES;
+    private static final int MAX_NUMBERS = DotController.MAX_RIGHT_TRIANGLE_ENTRIES;
+    private static final int MAX_POSITION_COORDINATES = 2 * DotController.MAX_RIGHT_TRIANGLE_ENTRIES; // Пары x, y
+    private static final long TRAILER_BYTES = (long) (MAX_NUMBERS + MAX_POSITION_COORDINATES) * Integer.BYTES;
+    private static final long ESTIMATOR_OFFSET = TRAILER_OFFSET + TRAILER_BYTES;
+    private static final int ESTIMATOR_HEADER_LONGS = 3; // Количество точек, предыдущая оценка, скорость изменения
+    private static final int ESTIMATOR_WORDS = BoxCountingEstimator.snapshotWords(DotController.SIZE);
+    private static final long ESTIMATOR_BYTES = (long) (ESTIMATOR_HEADER_LONGS + ESTIMATOR_WORDS) * Long.BYTES;
+    static final long SLOT_SIZE = ESTIMATOR_OFFSET + ESTIMATOR_BYTES;
+    private static final int SLOT_COUNT = 2;
+    private static final int NO_SLOT = -1;
+
+    /**
+     * CHECKPOINT_INTERVAL определяет интервал между контрольными точками (в миллисекундах).
+     */
+    private static final int CHECKPOINT_INTERVAL = 5000;
+
+    private final Path snapshotPath;
+    private FileChannel channel; // Канал файла контрольной точки или null, если файл недоступен
+    private MappedByteBuffer[] slots; // Слоты файла, отображенные в память
+    private IntBuffer[] rasterBuffers; // Растры слотов в виде массивов int
+    private IntBuffer[] trailerBuffers; // Числа и позиции правого треугольника слотов
+    private LongBuffer[] estimatorBuffers; // Состояние оценки размерности слотов
+    private final ExecutorService writer; // Однопоточный исполнитель записи вне EDT
+    private final AtomicBoolean writeInProgress = new AtomicBoolean(false);
+    private final int[] tileBuffer = new int[TILE_PIXELS]; // Используется только потоком записи
+
+    // Состояние слотов; после восстановления используется только потоком записи
+    private final long[][] pendingTiles = new long[SLOT_COUNT][(TILE_COUNT + 63) / 64]; // Фрагменты, еще не записанные в слот
+    private final boolean[] fullWriteRequired = {true, true}; // Содержимое слота не соответствует изображению
+    private long sequence; // Наибольший номер последовательности в файле
+    private int latestSlot = NO_SLOT; // Слот с последней завершенной контрольной точкой
+    private Timer checkpointTimer;
+
+    public RenderCheckpoint() {
+        this(Paths.get(SNAPSHOT_FILE_NAME));
+    }
+
+    public RenderCheckpoint(Path snapshotPath) {
+        this.snapshotPath = snapshotPath;
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "render-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            channel = FileChannel.open(snapshotPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            slots = new MappedByteBuffer[SLOT_COUNT];
+            rasterBuffers = new IntBuffer[SLOT_COUNT];
+            trailerBuffers = new IntBuffer[SLOT_COUNT];
+            estimatorBuffers = new LongBuffer[SLOT_COUNT];
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                slots[slot] = channel.map(FileChannel.MapMode.READ_WRITE, slot * SLOT_SIZE, SLOT_SIZE);
+                slots[slot].order(ByteOrder.LITTLE_ENDIAN);
+                rasterBuffers[slot] = slots[slot].slice(HEADER_SIZE, (int) RASTER_BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+                trailerBuffers[slot] = slots[slot].slice((int) TRAILER_OFFSET, (int) TRAILER_BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asIntBuffer();
+                estimatorBuffers[slot] = slots[slot].slice((int) ESTIMATOR_OFFSET, (int) ESTIMATOR_BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asLongBuffer();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, LOG_OPEN_FAILED + snapshotPath, e);
+            closeChannel();
+        }
+    }
+
+    /**
+     * @return {@code true}, если файл контрольной точки открыт и отображен в память.
+     */
+    public boolean isEnabled() {
+        return slots != null;
+    }
+
+    /**
+     * Читает последнюю завершенную контрольную точку.
+     *
+     * @return восстановленное состояние с растром или {@code null}, если снимок отсутствует,
+     * несовместим или не был завершен.
+     */
+    public RenderState restore() {
+        if (!isEnabled()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        int slot = NO_SLOT;
+        boolean incomplete = false;
+        for (int candidate = 0; candidate < SLOT_COUNT; candidate++) {
+            MappedByteBuffer header = slots[candidate];
+            if (header.getInt(OFFSET_MAGIC) != MAGIC
+                    || header.getInt(OFFSET_VERSION) != VERSION
+                    || header.getInt(OFFSET_TILE_SIZE) != TILE_SIZE
+                    || header.getInt(OFFSET_TILE_COUNT) != TILE_COUNT) {
+                continue;
+            }
+            long candidateSequence = header.getLong(OFFSET_SEQUENCE);
+            sequence = Math.max(sequence, candidateSequence);
+            if ((candidateSequence & 1) != 0) {
+                incomplete = true;
+            } else if (slot == NO_SLOT || candidateSequence > slots[slot].getLong(OFFSET_SEQUENCE)) {
+                slot = candidate;
+            }
+        }
+        if (slot == NO_SLOT) {
+            if (incomplete) {
+                LOGGER.warning(LOG_RESTORE_INCOMPLETE);
+            } else {
+                LOGGER.info(LOG_RESTORE_SKIPPED);
+            }
+            return null;
+        }
+        if (incomplete) {
+            LOGGER.warning(LOG_RESTORE_PREVIOUS);
+        }
+
+        try {
+            MappedByteBuffer header = slots[slot];
+            int numbersCount = header.getInt(OFFSET_NUMBERS_COUNT);
+            int positionsCount = header.getInt(OFFSET_POSITIONS_COUNT);
+            if (numbersCount < 0 || numbersCount > MAX_NUMBERS
+                    || positionsCount < 0 || positionsCount > MAX_POSITION_COORDINATES || positionsCount % 2 != 0) {
+                LOGGER.warning(String.format(LOG_RESTORE_CORRUPT, numbersCount, positionsCount));
+                return null;
+            }
+            int[] numbers = new int[numbersCount];
+            int[] positions = new int[positionsCount];
+            trailerBuffers[slot].get(0, numbers).get(numbersCount, positions);
+
+            // Перекладываем фрагменты в построчный растр
+            IntBuffer rasterBuffer = rasterBuffers[slot];
+            int[] pixels = new int[IMAGE_SIZE * IMAGE_SIZE];
+            for (int tile = 0; tile < TILE_COUNT; tile++) {
+                int tileX = (tile % TILES_PER_ROW) * TILE_SIZE;
+                int tileY = (tile / TILES_PER_ROW) * TILE_SIZE;
+                int tileOffset = tile * TILE_PIXELS;
+                for (int row = 0; row < TILE_SIZE; row++) {
+                    rasterBuffer.get(tileOffset + row * TILE_SIZE, pixels,
+                            (tileY + row) * IMAGE_SIZE + tileX, TILE_SIZE);
+                }
+            }
+
+            LongBuffer estimatorBuffer = estimatorBuffers[slot];
+            if (estimatorBuffer.get(0) < 0) {
+                LOGGER.warning(String.format(LOG_RESTORE_CORRUPT_DIMENSION, estimatorBuffer.get(0)));
+                return null;
+            }
+            long[] cells = new long[ESTIMATOR_WORDS];
+            estimatorBuffer.get(ESTIMATOR_HEADER_LONGS, cells);
+            BoxCountingEstimator.Snapshot dimension = new BoxCountingEstimator.Snapshot(estimatorBuffer.get(0),
+                    Double.longBitsToDouble(estimatorBuffer.get(1)), Double.longBitsToDouble(estimatorBuffer.get(2)), cells);
+
+            Long value = header.getInt(OFFSET_HAS_VALUE) != 0 ? header.getLong(OFFSET_VALUE) : null;
+            RenderState state = new RenderState(
+                    new Point(header.getInt(OFFSET_POINT_X), header.getInt(OFFSET_POINT_Y)),
+                    header.getInt(OFFSET_INDEX), value, numbers, positions, pixels, dimension);
+
+            // Слот соответствует восстановленному изображению; другой слот перезаписывается целиком
+            latestSlot = slot;
+            fullWriteRequired[slot] = false;
+            LOGGER.info(String.format(LOG_RESTORED,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), state.currentRandomValueIndex()));
+            return state;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, LOG_RESTORE_SKIPPED, e);
+            return null;
+        }
+    }
+
+    /**
+     * Запускает периодическое создание контрольных точек для указанного контроллера.
+     * Должен вызываться в потоке EDT.
+     *
+     * @param dotController контроллер, состояние которого сохраняется.
+     */
+    public void start(DotController dotController) {
+        if (!isEnabled()) {
+            return;
+        }
+        checkpointTimer = new Timer(CHECKPOINT_INTERVAL, e -> requestCheckpoint(dotController));
+        checkpointTimer.start();
+    }
+
+    /**
+     * Фиксирует состояние в потоке EDT и передает запись потоку записи.
+     * Если предыдущая запись еще не завершена, текущая контрольная точка пропускается:
+     * измененные фрагменты останутся помеченными до следующей.
+     */
+    private Future<?> requestCheckpoint(DotController dotController) {
+        if (!writeInProgress.compareAndSet(false, true)) {
+            return null;
+        }
+        RenderState state = dotController.captureRenderState();
+        long[] dirty = dotController.drainDirtyTiles();
+        return writer.submit(() -> {
+            try {
+                writeCheckpoint(dotController, state, dirty);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, LOG_CHECKPOINT_FAILED, e);
+            } finally {
+                writeInProgress.set(false);
+            }
+        });
+    }
+
+    // Метод для записи контрольной точки (выполняется в потоке записи)
+    private void writeCheckpoint(DotController dotController, RenderState state, long[] dirty) {
+        long start = System.nanoTime();
+        for (long[] pending : pendingTiles) {
+            for (int i = 0; i < pending.length; i++) {
+                pending[i] |= dirty[i];
+            }
+        }
+        // Пишем в слот, не содержащий последнюю завершенную контрольную точку
+        int slot = latestSlot == NO_SLOT ? 0 : 1 - latestSlot;
+        MappedByteBuffer header = slots[slot];
+        long[] pending = pendingTiles[slot];
+
+        // Помечаем слот как незавершенный до записи данных
+        long nextSequence = (sequence | 1) + 1;
+        header.putLong(OFFSET_SEQUENCE, nextSequence - 1);
+        header.force(0, HEADER_SIZE);
+        sequence = nextSequence;
+
+        boolean full = fullWriteRequired[slot];
+        IntBuffer rasterBuffer = rasterBuffers[slot];
+        int tilesWritten = 0;
+        for (int tile = 0; tile < TILE_COUNT; tile++) {
+            if (full || (pending[tile >>> 6] & (1L << (tile & 63))) != 0) {
+                dotController.readTile(tile, tileBuffer);
+                rasterBuffer.put(tile * TILE_PIXELS, tileBuffer);
+                tilesWritten++;
+            }
+        }
+
+        int[] numbers = state.numbers();
+        int[] positions = state.fallenPositions();
+        int numbersCount = Math.min(numbers.length, MAX_NUMBERS);
+        int positionsCount = Math.min(positions.length, MAX_POSITION_COORDINATES) & ~1;
+        trailerBuffers[slot].put(0, numbers, 0, numbersCount).put(numbersCount, positions, 0, positionsCount);
+
+        BoxCountingEstimator.Snapshot dimension = state.dimension();
+        estimatorBuffers[slot].put(0, dimension.pointCount())
+                .put(1, Double.doubleToRawLongBits(dimension.previousEstimate()))
+                .put(2, Double.doubleToRawLongBits(dimension.rateOfChange()))
+                .put(ESTIMATOR_HEADER_LONGS, dimension.cells());
+
+        header.putInt(OFFSET_MAGIC, MAGIC);
+        header.putInt(OFFSET_VERSION, VERSION);
+        header.putInt(OFFSET_TILE_SIZE, TILE_SIZE);
+        header.putInt(OFFSET_TILE_COUNT, TILE_COUNT);
+        header.putInt(OFFSET_POINT_X, state.currentPoint().x);
+        header.putInt(OFFSET_POINT_Y, state.currentPoint().y);
+        header.putInt(OFFSET_INDEX, state.currentRandomValueIndex());
+        header.putInt(OFFSET_HAS_VALUE, state.currentRandomValue() != null ? 1 : 0);
+        header.putLong(OFFSET_VALUE, state.currentRandomValue() != null ? state.currentRandomValue() : 0L);
+        header.putInt(OFFSET_NUMBERS_COUNT, numbersCount);
+        header.putInt(OFFSET_POSITIONS_COUNT, positionsCount);
+        header.force();
+
+        // Снимок завершен; при сбое до этой точки фрагменты слота остаются в pendingTiles
+        header.putLong(OFFSET_SEQUENCE, nextSequence);
+        header.force(0, HEADER_SIZE);
+        Arrays.fill(pending, 0L);
+        fullWriteRequired[slot] = false;
+        latestSlot = slot;
+
+        int written = tilesWritten;
+        LOGGER.fine(() -> String.format(LOG_CHECKPOINT_WRITTEN,
+                written, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    /**
+     * Останавливает периодические контрольные точки, записывает финальную и закрывает файл.
+     * Должен вызываться в потоке EDT.
+     *
+     * @param dotController контроллер, состояние которого сохраняется.
+     */
+    public void shutdown(DotController dotController) {
+        if (checkpointTimer != null) {
+            checkpointTimer.stop();
+        }
+        if (isEnabled()) {
+            try {
+                // Дожидаемся текущей записи, затем записываем финальное состояние
+                writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+                Future<?> finalWrite = requestCheckpoint(dotController);
+                if (finalWrite != null) {
+                    finalWrite.get(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                LOGGER.log(Level.WARNING, LOG_FINAL_CHECKPOINT_FAILED, e);
+            }
+        }
+        writer.shutdown();
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        slots = null;
+        rasterBuffers = null;
+        trailerBuffers = null;
+        estimatorBuffers = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, LOG_OPEN_FAILED + snapshotPath, e);
+            }
+            channel = null;
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Параметры задания распределенной отрисовки, общие для координатора и рабочих процессов.
+ * <p>
+ * Энтропия задания — последовательность из {@code draws} 32-битных чисел: либо файл случайных байтов
+ * (по 4 байта на выборку, например записанный из квантового пула), либо детерминированная
+ * последовательность из зерна. Рабочие процессы обрабатывают непрерывные непересекающиеся срезы
+ * длиной draws / workers (первые draws % workers срезов длиннее на одну выборку).
+ * <p>
+ * Если задан допуск сходимости, рабочий процесс останавливает свой срез досрочно, как только оценка
+ * фрактальной размерности ({@link BoxCountingEstimator}) по его точкам стабилизировалась.
+ *
+ * @param directory   каталог задания с файлами плотности
+ * @param workers     количество рабочих процессов
+ * @param draws       общее количество выборок
+ * @param seed        зерно детерминированной последовательности (если файл энтропии не задан)
+ * @param entropyFile файл случайных байтов или {@code null}
+ * @param convergenceTolerance допустимое изменение оценки размерности за 1000 точек, при котором срез
+ *                             останавливается; 0 — обрабатывать срез целиком
+ */
+public record RenderJob(Path directory, int workers, long draws, long seed, Path entropyFile,
+                        double convergenceTolerance) {
+
+    private static final String SHARD_FILE_FORMAT = "shard-%03d.bin";
+    private static final String LOG_FILE_FORMAT = "worker-%03d.log";
+    private static final int FINGERPRINT_BLOCK = 64 * 1024; // Размер начального и конечного блоков файла энтропии в отпечатке
+
+    public RenderJob {
+        if (workers <= 0 || draws <= 0 || !(convergenceTolerance >= 0)) {
+            throw new IllegalArgumentException("Некорректные параметры задания: workers=" + workers + ", draws=" + draws
+                    + ", stop-when-converged=" + convergenceTolerance);
+        }
+    }
+
+    /**
+     * Задание, срезы которого обрабатываются целиком.
+     */
+    public RenderJob(Path directory, int workers, long draws, long seed, Path entropyFile) {
+        this(directory, workers, draws, seed, entropyFile, 0);
+    }
+
+    /**
+     * Разбирает аргументы вида {@code --ключ=значение}: job, workers, draws, seed, entropy, stop-when-converged.
+     *
+     * @param arguments аргументы командной строки.
+     * @return параметры задания.
+     */
+    public static RenderJob parse(Map<String, String> arguments) {
+        String entropy = arguments.get("entropy");
+        return new RenderJob(
+                Path.of(arguments.getOrDefault("job", "render-job")),
+                Integer.parseInt(arguments.getOrDefault("workers", Integer.toString(Runtime.getRuntime().availableProcessors()))),
+                Long.parseLong(arguments.getOrDefault("draws", "100000000")),
+                Long.parseLong(arguments.getOrDefault("seed", "1")),
+                entropy == null ? null : Path.of(entropy),
+                Double.parseDouble(arguments.getOrDefault("stop-when-converged", "0")));
+    }
+
+    /**
+     * Разбирает аргументы командной строки вида {@code --ключ=значение}.
+     */
+    static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида --ключ=значение: " + arg);
+            }
+            arguments.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return arguments;
+    }
+
+    /**
+     * @return аргументы, передаваемые рабочему процессу.
+     */
+    List<String> toArguments() {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--job=" + directory.toAbsolutePath());
+        arguments.add("--workers=" + workers);
+        arguments.add("--draws=" + draws);
+        arguments.add("--seed=" + seed);
+        if (entropyFile != null) {
+            arguments.add("--entropy=" + entropyFile.toAbsolutePath());
+        }
+        if (convergenceTolerance > 0) {
+            arguments.add("--stop-when-converged=" + convergenceTolerance);
+        }
+        return arguments;
+    }
+
+    /**
+     * Идентификатор задания. Для файла энтропии учитываются путь, размер, время изменения и отпечаток
+     * содержимого (CRC32C первого и последнего блоков), поэтому замена файла другими данными того же
+     * размера не позволяет использовать файлы плотности, посчитанные по старым данным.
+     *
+     * @return идентификатор задания; файлы плотности другого задания не используются при возобновлении.
+     * @throws IOException если файл энтропии не удалось прочитать.
+     */
+    long id() throws IOException {
+        long hash = draws * 0x9E3779B97F4A7C15L ^ workers;
+        if (entropyFile != null) {
+            hash = hash * 31 + entropyFile.toAbsolutePath().toString().hashCode();
+            hash = hash * 31 + Files.size(entropyFile);
+            hash = hash * 31 + Files.getLastModifiedTime(entropyFile).toMillis();
+            hash = hash * 31 + contentFingerprint(entropyFile);
+        } else {
+            hash = hash * 31 + seed;
+        }
+        if (convergenceTolerance > 0) {
+            hash = hash * 31 + Double.hashCode(convergenceTolerance);
+        }
+        return hash;
+    }
+
+    // CRC32C первого и последнего блоков файла
+    private static long contentFingerprint(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer block = ByteBuffer.allocate((int) Math.min(size, FINGERPRINT_BLOCK));
+            for (long position : new long[]{0, Math.max(0, size - block.capacity())}) {
+                block.clear();
+                while (block.hasRemaining()) {
+                    if (channel.read(block, position + block.position()) < 0) {
+                        break;
+                    }
+                }
+                crc.update(block.flip());
+            }
+        }
+        return crc.getValue();
+    }
+
+    // Первые draws % workers срезов длиннее на одну выборку
+    long sliceStart(int worker) {
+        return draws / workers * worker + Math.min(worker, draws % workers);
+    }
+
+    long sliceEnd(int worker) {
+        return sliceStart(worker + 1);
+    }
+
+    Path shardPath(int worker) {
+        return directory.resolve(String.format(SHARD_FILE_FORMAT, worker));
+    }
+
+    /**
+     * @return файл лога рабочего процесса; у каждого процесса свой файл, чтобы записи и ротация не смешивались.
+     */
+    Path logPath(int worker) {
+        return directory.resolve(String.format(LOG_FILE_FORMAT, worker));
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.ThreeDotsSierpinski;
+
+import java.awt.*;
+
+/**
+ * Снимок состояния отрисовки {@link DotController}, который сохраняется в контрольной точке
+ * и восстанавливается при следующем запуске приложения.
+ *
+ * @param currentPoint            текущая позиция точки в игре хаоса
+ * @param currentRandomValueIndex счетчик обработанных случайных чисел
+ * @param currentRandomValue      последнее случайное число или {@code null}, если чисел еще не было
+ * @param numbers                 числа правого треугольника
+ * @param fallenPositions         позиции упавших чисел, упакованные парами {@code x, y}
+ * @param pixels                  пиксели буферного изображения (ARGB, построчно) или {@code null},
+ *                                если снимок используется без растра
+ * @param dimension               состояние оценки фрактальной размерности или {@code null},
+ *                                если оценка начинается заново
+ */
+public record RenderState(Point currentPoint,
+                          int currentRandomValueIndex,
+                          Long currentRandomValue,
+                          int[] numbers,
+                          int[] fallenPositions,
+                          int[] pixels,
+                          BoxCountingEstimator.Snapshot dimension) {
+
+    /**
+     * Создает копию переданной точки для обеспечения неизменяемости.
+     */
+    public RenderState {
+        currentPoint = new Point(currentPoint);
+    }
+
+    /**
+     * Возвращает копию текущей точки для предотвращения изменения оригинала.
+     *
+     * @return Копия текущей точки
+     */
+    @Override
+    public Point currentPoint() {
+        return new Point(currentPoint);
+    }
+
+}
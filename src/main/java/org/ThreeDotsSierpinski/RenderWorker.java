@@ -0,0 +1,209 @@
+package org.ThreeDotsSierpinski;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Рабочий процесс распределенной отрисовки: проходит свой срез энтропии задания игрой хаоса
+ * ({@link DotController#calculateNewDotPosition}) и накапливает плотность в {@link DensityShard}.
+ * <p>
+ * Состояние сохраняется каждые несколько секунд. После перезапуска процесс продолжает с последней
+ * сохраненной выборки: выборки после нее повторяются на тех же данных, а их результат до сбоя
+ * на диск не попал, поэтому ни одна выборка не учитывается дважды.
+ * <p>
+ * Если в задании задан допуск сходимости, по точкам среза ведется оценка фрактальной размерности,
+ * и срез останавливается, как только она стабилизировалась ({@link BoxCountingEstimator#isConverged}).
+ */
+public class RenderWorker {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    // Строковые константы
+    private static final String LOG_STARTED = "Рабочий процесс %d: срез [%d, %d), продолжение с %d.";
+    private static final String LOG_PROGRESS = "Рабочий процесс %d: обработано %d из %d выборок.";
+    private static final String LOG_FINISHED = "Рабочий процесс %d завершил срез за %d мс.";
+    private static final String LOG_CONVERGED = "Рабочий процесс %d: оценка размерности %.4f стабилизировалась после %d из %d выборок, срез остановлен.";
+    private static final String ENTROPY_TOO_SHORT = "Файл энтропии содержит %d байт, а заданию нужно %d.";
+
+    private static final int BURN_IN = 16; // Первые точки среза, еще не попавшие на аттрактор
+    private static final long CHECKPOINT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5); // Интервал сохранения состояния
+    private static final int CLOCK_CHECK_MASK = (1 << 20) - 1; // Проверка времени раз в 2^20 выборок
+    private static final long ENTROPY_WINDOW = 1L << 30; // Размер окна файла энтропии, отображаемого в память
+    private static final int CONVERGENCE_CHECK_MASK = (1 << 10) - 1; // Проверка сходимости раз в 2^10 выборок
+
+    private RenderWorker() {
+    }
+
+    /**
+     * Обрабатывает срез рабочего процесса до конца, продолжая с сохраненного состояния.
+     *
+     * @param job    параметры задания.
+     * @param worker номер рабочего процесса.
+     * @throws IOException если не удалось прочитать энтропию или записать файл плотности.
+     */
+    public static void run(RenderJob job, int worker) throws IOException {
+        run(job, worker, Long.MAX_VALUE);
+    }
+
+    /**
+     * Обрабатывает не больше {@code maxDraws} выборок среза и сохраняет состояние.
+     *
+     * @return {@code true}, если срез обработан полностью.
+     */
+    static boolean run(RenderJob job, int worker, long maxDraws) throws IOException {
+        Files.createDirectories(job.directory());
+        long jobId = job.id();
+        long sliceStart = job.sliceStart(worker);
+        long sliceEnd = job.sliceEnd(worker);
+        Path shardPath = job.shardPath(worker);
+        DensityShard shard = DensityShard.load(shardPath, jobId, sliceStart, sliceEnd);
+        if (shard == null) {
+            shard = new DensityShard(jobId, sliceStart, sliceEnd);
+        }
+        LOGGER.info(String.format(LOG_STARTED, worker, sliceStart, sliceEnd, shard.nextIndex));
+
+        long started = System.nanoTime();
+        long lastCheckpoint = started;
+        long stopAt = maxDraws == Long.MAX_VALUE ? sliceEnd : Math.min(sliceEnd, shard.nextIndex + maxDraws);
+        double tolerance = job.convergenceTolerance();
+        BoxCountingEstimator estimator = tolerance > 0 && !shard.isComplete() ? occupancyEstimator(shard.counts) : null;
+        try (Entropy entropy = job.entropyFile() == null ? new SeededEntropy(job.seed()) : new FileEntropy(job)) {
+            int[] counts = shard.counts;
+            Point point = new Point(shard.pointX, shard.pointY);
+            long index = shard.nextIndex;
+            while (index < stopAt) {
+                long value = RandomNumberSupplier.scaleToRange(entropy.draw(index),
+                        DotController.MIN_RANDOM_VALUE, DotController.MAX_RANDOM_VALUE);
+                point = DotController.calculateNewDotPosition(point, value);
+                if (index - sliceStart >= BURN_IN) {
+                    counts[point.y * DensityShard.WIDTH + point.x]++;
+                    if (estimator != null) {
+                        estimator.record(point.x, point.y);
+                    }
+                }
+                index++;
+                if (estimator != null && (index & CONVERGENCE_CHECK_MASK) == 0 && estimator.isConverged(tolerance)) {
+                    shard.converged = true;
+                    LOGGER.info(String.format(LOG_CONVERGED, worker, estimator.getDimension(),
+                            index - sliceStart, sliceEnd - sliceStart));
+                    break;
+                }
+                if ((index & CLOCK_CHECK_MASK) == 0 && System.nanoTime() - lastCheckpoint > CHECKPOINT_INTERVAL_NANOS) {
+                    save(shard, shardPath, index, point);
+                    lastCheckpoint = System.nanoTime();
+                    LOGGER.info(String.format(LOG_PROGRESS, worker, index - sliceStart, sliceEnd - sliceStart));
+                }
+            }
+            save(shard, shardPath, index, point);
+        }
+        if (shard.isComplete()) {
+            LOGGER.info(String.format(LOG_FINISHED, worker, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)));
+        }
+        return shard.isComplete();
+    }
+
+    // Оценка размерности, учитывающая занятость уже накопленных счетчиков; скорость изменения
+    // оценивается заново по новым выборкам, поэтому после перезапуска срез не останавливается сразу
+    private static BoxCountingEstimator occupancyEstimator(int[] counts) {
+        BoxCountingEstimator estimator = new BoxCountingEstimator(DotController.SIZE);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                estimator.record(i % DensityShard.WIDTH, i / DensityShard.WIDTH);
+            }
+        }
+        long[] cells = estimator.snapshot().cells();
+        estimator.restore(new BoxCountingEstimator.Snapshot(0, Double.NaN, Double.NaN, cells));
+        return estimator;
+    }
+
+    private static void save(DensityShard shard, Path path, long index, Point point) throws IOException {
+        shard.nextIndex = index;
+        shard.pointX = point.x;
+        shard.pointY = point.y;
+        shard.save(path);
+    }
+
+    /**
+     * Источник 32-битных чисел с произвольным доступом по номеру выборки.
+     */
+    private interface Entropy extends AutoCloseable {
+        int draw(long index) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Детерминированная последовательность: финализатор SplitMix64 от зерна и номера выборки.
+     * Не требует состояния, поэтому срез можно начать с любой выборки.
+     */
+    private record SeededEntropy(long seed) implements Entropy {
+        @Override
+        public int draw(long index) {
+            long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return (int) ((z ^ (z >>> 31)) >>> 32);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Файл случайных байтов: выборка i — 4 байта со смещения 4i (big-endian, как в
+     * {@link RandomNumberSupplier#getNextRandomInteger()}). Файл отображается в память окнами по 1 ГиБ.
+     */
+    private static final class FileEntropy implements Entropy {
+        private final FileChannel channel;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long windowEnd;
+
+        FileEntropy(RenderJob job) throws IOException {
+            channel = FileChannel.open(job.entropyFile(), StandardOpenOption.READ);
+            long required = job.draws() * Integer.BYTES;
+            if (channel.size() < required) {
+                channel.close();
+                throw new IOException(String.format(ENTROPY_TOO_SHORT, channel.size(), required));
+            }
+        }
+
+        @Override
+        public int draw(long index) throws IOException {
+            long offset = index * Integer.BYTES;
+            if (offset < windowStart || offset + Integer.BYTES > windowEnd) {
+                windowStart = offset;
+                windowEnd = Math.min(channel.size(), offset + ENTROPY_WINDOW);
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+                window.order(ByteOrder.BIG_ENDIAN);
+            }
+            return window.getInt((int) (offset - windowStart));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Запускает рабочий процесс: {@code --worker=i} и параметры задания (см. {@link RenderJob#parse}).
+     */
+    public static void main(String[] args) throws IOException {
+        LoggerConfig.initializeLogger();
+        var arguments = RenderJob.parseArguments(args);
+        RenderJob job = RenderJob.parse(arguments);
+        int worker = Integer.parseInt(arguments.get("worker"));
+        run(job, worker);
+    }
+
+}
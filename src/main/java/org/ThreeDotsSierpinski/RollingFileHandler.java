@@ -0,0 +1,149 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.ErrorManager;
+import java.util.logging.LogRecord;
+import java.util.logging.StreamHandler;
+
+/**
+ * Файловый обработчик логов с ротацией по размеру и по смене суток.
+ * <p>
+ * Текущие записи пишутся в основной файл (например, {@code app.log}). При превышении размера
+ * или при наступлении новых суток файл переименовывается в {@code app-yyyyMMdd-HHmmss.log},
+ * и запись продолжается в новый основной файл. Хранится не больше заданного количества архивных файлов.
+ */
+public class RollingFileHandler extends StreamHandler {
+    private static final DateTimeFormatter ARCHIVE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file; // Основной файл лога
+    private final long maxFileSize; // Размер, при превышении которого выполняется ротация
+    private final int maxArchivedFiles; // Количество хранимых архивных файлов
+    private final String baseName; // Имя файла без расширения
+    private final String extension; // Расширение файла вместе с точкой
+
+    private long writtenBytes; // Размер текущего файла
+    private LocalDate openedDate; // Дата, к которой относятся записи текущего файла
+
+    /**
+     * @param file             основной файл лога; существующий файл дописывается.
+     * @param maxFileSize      размер файла (в байтах), при превышении которого выполняется ротация.
+     * @param maxArchivedFiles количество хранимых архивных файлов.
+     * @throws IOException если файл не удалось открыть.
+     */
+    public RollingFileHandler(Path file, long maxFileSize, int maxArchivedFiles) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.maxFileSize = maxFileSize;
+        this.maxArchivedFiles = maxArchivedFiles;
+        String name = this.file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        baseName = dot > 0 ? name.substring(0, dot) : name;
+        extension = dot > 0 ? name.substring(dot) : "";
+        open();
+    }
+
+    @Override
+    public synchronized void publish(LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        if (writtenBytes >= maxFileSize || !LocalDate.now().equals(openedDate)) {
+            rotate();
+        }
+        super.publish(record);
+    }
+
+    // Открывает основной файл в режиме дозаписи
+    private void open() throws IOException {
+        writtenBytes = Files.exists(file) ? Files.size(file) : 0;
+        openedDate = Files.exists(file)
+                ? LocalDate.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault())
+                : LocalDate.now();
+        OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        setOutputStream(new CountingOutputStream(new BufferedOutputStream(out, WRITE_BUFFER_SIZE)));
+    }
+
+    // Переносит текущий файл в архив, открывает новый и удаляет лишние архивные файлы
+    private void rotate() {
+        try {
+            setOutputStream(OutputStream.nullOutputStream()); // Закрывает текущий файл
+            if (Files.exists(file) && Files.size(file) > 0) {
+                Files.move(file, archivePath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+            open();
+            deleteExpiredArchives();
+        } catch (IOException e) {
+            reportError(null, e, ErrorManager.OPEN_FAILURE);
+            // Продолжаем писать в тот же файл, чтобы не потерять записи
+            writtenBytes = 0;
+            openedDate = LocalDate.now();
+            try {
+                OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                setOutputStream(new CountingOutputStream(new BufferedOutputStream(out, WRITE_BUFFER_SIZE)));
+            } catch (IOException reopenFailure) {
+                reportError(null, reopenFailure, ErrorManager.OPEN_FAILURE);
+            }
+        }
+    }
+
+    private Path archivePath() {
+        String suffix = LocalDateTime.now().format(ARCHIVE_SUFFIX);
+        Path archive = file.resolveSibling(baseName + "-" + suffix + extension);
+        for (int i = 1; Files.exists(archive); i++) {
+            archive = file.resolveSibling(baseName + "-" + suffix + "-" + i + extension);
+        }
+        return archive;
+    }
+
+    private void deleteExpiredArchives() throws IOException {
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(file.getParent(), baseName + "-*" + extension)) {
+            stream.forEach(archives::add);
+        }
+        if (archives.size() <= maxArchivedFiles) {
+            return;
+        }
+        // Имена архивов содержат время ротации, поэтому сортировка по имени упорядочивает их по возрасту
+        archives.sort(null);
+        for (int i = 0; i < archives.size() - maxArchivedFiles; i++) {
+            Files.deleteIfExists(archives.get(i));
+        }
+    }
+
+    /**
+     * Поток, подсчитывающий количество записанных байтов.
+     */
+    private final class CountingOutputStream extends FilterOutputStream {
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            writtenBytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            writtenBytes += len;
+        }
+    }
+
+}
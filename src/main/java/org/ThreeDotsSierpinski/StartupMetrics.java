@@ -0,0 +1,224 @@
+package org.ThreeDotsSierpinski;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Метрики запуска приложения: начало и конец каждой фазы относительно входа в main,
+ * время до отображения окна и до первой отрисованной точки.
+ * <p>
+ * Фазы выполняются параллельно, поэтому для каждой хранится интервал, а не длительность:
+ * по интервалам видно, какая фаза задерживает первую точку. Бюджет времени до первой точки
+ * задается свойством {@value #BUDGET_PROPERTY} (в миллисекундах).
+ * <p>
+ * Класс не обращается к логгеру при создании: логгер инициализируется параллельно с другими фазами.
+ */
+public class StartupMetrics implements StartupMetricsMBean {
+
+    /**
+     * Фазы запуска.
+     */
+    public enum Phase {
+        /** Инициализация логгирования. */
+        LOGGER("логгер"),
+        /** Создание поставщика случайных чисел или подключение к сервису. */
+        SUPPLIER("поставщик"),
+        /** Чтение контрольной точки отрисовки. */
+        CHECKPOINT("контрольная точка"),
+        /** Создание и отображение окна. */
+        FRAME("окно"),
+        /** Создание панели и восстановление изображения. */
+        PANEL("панель"),
+        /** Ожидание первых случайных чисел. */
+        ENTROPY("случайные числа"),
+        /** От запуска таймеров до первой отрисованной точки. */
+        FIRST_DOT("первая точка");
+
+        private final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * Системное свойство с бюджетом времени до первой точки (в миллисекундах).
+     */
+    public static final String BUDGET_PROPERTY = "qrng.startup.budget";
+
+    // Строковые константы
+    private static final String OBJECT_NAME = "org.ThreeDotsSierpinski:type=StartupMetrics";
+    private static final String LOG_JMX_FAILED = "Не удалось зарегистрировать метрики запуска в JMX.";
+    private static final String LOG_SUMMARY = "Запуск: JVM %d мс, окно через %d мс, первая точка через %d мс. Фазы: %s";
+    private static final String LOG_OVER_BUDGET = "Первая точка отрисована через %d мс, бюджет запуска %d мс превышен. Фазы: %s";
+    private static final String PHASE_FORMAT = "%s: %d–%d мс";
+    private static final String PHASE_PENDING_FORMAT = "%s: с %d мс, не завершена";
+    private static final String PHASE_NOT_STARTED_FORMAT = "%s: не начата";
+
+    private static final long NOT_RECORDED = -1;
+
+    private final long startNanos; // Момент входа в main
+    private final long jvmStartupMillis; // Время от старта JVM до входа в main
+    private final long budgetMillis;
+    private final AtomicLongArray phaseStarts; // Начало фаз в наносекундах от входа в main
+    private final AtomicLongArray phaseEnds; // Конец фаз в наносекундах от входа в main
+    private ObjectName objectName;
+
+    /**
+     * Создает метрики, отсчитывающие время от текущего момента. Вызывается первым в main.
+     */
+    public StartupMetrics() {
+        this(System.nanoTime(), ProcessHandle.current().info().startInstant()
+                .map(start -> Math.max(0, System.currentTimeMillis() - start.toEpochMilli()))
+                .orElse(0L), Long.getLong(BUDGET_PROPERTY, 0));
+    }
+
+    /**
+     * @param startNanos       момент входа в main по {@link System#nanoTime()}.
+     * @param jvmStartupMillis время от старта JVM до входа в main.
+     * @param budgetMillis     бюджет времени до первой точки или 0.
+     */
+    StartupMetrics(long startNanos, long jvmStartupMillis, long budgetMillis) {
+        this.startNanos = startNanos;
+        this.jvmStartupMillis = jvmStartupMillis;
+        this.budgetMillis = budgetMillis;
+        int phases = Phase.values().length;
+        phaseStarts = new AtomicLongArray(phases);
+        phaseEnds = new AtomicLongArray(phases);
+        for (int i = 0; i < phases; i++) {
+            phaseStarts.set(i, NOT_RECORDED);
+            phaseEnds.set(i, NOT_RECORDED);
+        }
+    }
+
+    /**
+     * Отмечает начало фазы. Повторные вызовы не изменяют записанное время.
+     */
+    public void begin(Phase phase) {
+        phaseStarts.compareAndSet(phase.ordinal(), NOT_RECORDED, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Отмечает конец фазы; если начало не отмечено, фаза считается начатой при входе в main.
+     * Повторные вызовы не изменяют записанное время.
+     */
+    public void end(Phase phase) {
+        phaseStarts.compareAndSet(phase.ordinal(), NOT_RECORDED, 0);
+        phaseEnds.compareAndSet(phase.ordinal(), NOT_RECORDED, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return конец фазы в миллисекундах от входа в main или -1, если фаза не завершена.
+     */
+    public long getPhaseEndMillis(Phase phase) {
+        long end = phaseEnds.get(phase.ordinal());
+        return end == NOT_RECORDED ? NOT_RECORDED : TimeUnit.NANOSECONDS.toMillis(end);
+    }
+
+    /**
+     * @return {@code true}, если бюджет не задан или первая точка отрисована в его пределах.
+     */
+    public boolean isWithinBudget() {
+        long timeToFirstDot = getTimeToFirstDotMillis();
+        return budgetMillis <= 0 || (timeToFirstDot != NOT_RECORDED && timeToFirstDot <= budgetMillis);
+    }
+
+    @Override
+    public long getJvmStartupMillis() {
+        return jvmStartupMillis;
+    }
+
+    @Override
+    public long getTimeToFirstFrameMillis() {
+        return sinceJvmStart(Phase.FRAME);
+    }
+
+    @Override
+    public long getTimeToFirstDotMillis() {
+        return sinceJvmStart(Phase.FIRST_DOT);
+    }
+
+    @Override
+    public long getStartupBudgetMillis() {
+        return budgetMillis;
+    }
+
+    @Override
+    public String[] getPhaseTimes() {
+        return Arrays.stream(Phase.values()).map(this::formatPhase).toArray(String[]::new);
+    }
+
+    private long sinceJvmStart(Phase phase) {
+        long end = getPhaseEndMillis(phase);
+        return end == NOT_RECORDED ? NOT_RECORDED : jvmStartupMillis + end;
+    }
+
+    private String formatPhase(Phase phase) {
+        long start = phaseStarts.get(phase.ordinal());
+        long end = phaseEnds.get(phase.ordinal());
+        if (start == NOT_RECORDED) {
+            return String.format(PHASE_NOT_STARTED_FORMAT, phase.description);
+        }
+        if (end == NOT_RECORDED) {
+            return String.format(PHASE_PENDING_FORMAT, phase.description, TimeUnit.NANOSECONDS.toMillis(start));
+        }
+        return String.format(PHASE_FORMAT, phase.description,
+                TimeUnit.NANOSECONDS.toMillis(start), TimeUnit.NANOSECONDS.toMillis(end));
+    }
+
+    /**
+     * Записывает итоги запуска в лог; при превышении бюджета — с уровнем WARNING.
+     */
+    public void report() {
+        Logger logger = LoggerConfig.getLogger();
+        String phases = String.join("; ", getPhaseTimes());
+        if (isWithinBudget()) {
+            logger.info(String.format(LOG_SUMMARY, jvmStartupMillis, getTimeToFirstFrameMillis(),
+                    getTimeToFirstDotMillis(), phases));
+        } else {
+            logger.warning(String.format(LOG_OVER_BUDGET, getTimeToFirstDotMillis(), budgetMillis, phases));
+        }
+    }
+
+    /**
+     * Регистрирует метрики в JMX.
+     */
+    public void start() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            LoggerConfig.getLogger().log(Level.WARNING, LOG_JMX_FAILED, e);
+            objectName = null;
+        }
+    }
+
+    /**
+     * Снимает регистрацию в JMX.
+     */
+    public void shutdown() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (InstanceNotFoundException ignored) {
+                // Уже снят с регистрации
+            } catch (JMException e) {
+                LoggerConfig.getLogger().log(Level.FINE, LOG_JMX_FAILED, e);
+            }
+            objectName = null;
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.ThreeDotsSierpinski;
+
+/**
+ * JMX-интерфейс метрик запуска приложения.
+ */
+public interface StartupMetricsMBean {
+
+    /**
+     * @return время от старта JVM до входа в main (в миллисекундах).
+     */
+    long getJvmStartupMillis();
+
+    /**
+     * @return время от старта JVM до отображения окна (в миллисекундах) или -1, если окно еще не отображено.
+     */
+    long getTimeToFirstFrameMillis();
+
+    /**
+     * @return время от старта JVM до первой отрисованной точки (в миллисекундах) или -1, если ее еще нет.
+     */
+    long getTimeToFirstDotMillis();
+
+    /**
+     * @return бюджет времени до первой точки (в миллисекундах) или 0, если он не задан.
+     */
+    long getStartupBudgetMillis();
+
+    /**
+     * @return начало и конец каждой фазы относительно входа в main, по одной строке на фазу.
+     */
+    String[] getPhaseTimes();
+
+}
@@ -0,0 +1,445 @@
+package org.ThreeDotsSierpinski;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Параллельный набор статистических тестов для больших выборок случайных чисел:
+ * Колмогорова-Смирнова, хи-квадрат, серий Вальда-Вольфовица, последовательной корреляции
+ * со сдвигом k, а для байтовых данных также побитовые тесты monobit и block frequency (NIST SP 800-22).
+ * <p>
+ * Данные обрабатываются блоками в {@link ForkJoinPool}: каждый блок накапливает суммы и гистограмму
+ * в примитивных переменных простым циклом без ветвлений по типам, частичные результаты сливаются
+ * при возврате из подзадач. Файлы читаются через отображение в память фрагментами по 1 ГиБ,
+ * поэтому размер данных ограничен только размером файла.
+ */
+public class StatisticalBattery {
+
+    // Константы конфигурации
+    private static final int BINS = 256; // Количество корзин гистограммы (для байтов — по одной на значение)
+    private static final int DEFAULT_SERIAL_LAG = 1; // Сдвиг по умолчанию для теста последовательной корреляции
+    private static final int BLOCK_BYTES = 16; // Размер блока частотного теста: M = 128 бит
+    private static final int BLOCK_BITS = BLOCK_BYTES * Byte.SIZE;
+    private static final int SPLIT_THRESHOLD = 1 << 20; // Размер блока, который обрабатывается без деления
+    private static final long MAP_CHUNK_SIZE = 1L << 30; // Размер фрагмента файла, отображаемого в память
+
+    private static final String INVALID_RANGE = "Некорректный диапазон значений: [%d, %d]";
+    private static final String VALUE_OUT_OF_RANGE = "Значение %d вне диапазона [%d, %d]";
+    private static final String INVALID_LAG = "Сдвиг должен быть положительным: ";
+
+    private final int serialLag;
+    private final ForkJoinPool pool;
+
+    public StatisticalBattery() {
+        this(DEFAULT_SERIAL_LAG, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param serialLag сдвиг k для теста последовательной корреляции.
+     * @param pool      пул потоков для параллельной обработки блоков.
+     */
+    public StatisticalBattery(int serialLag, ForkJoinPool pool) {
+        if (serialLag <= 0) {
+            throw new IllegalArgumentException(INVALID_LAG + serialLag);
+        }
+        this.serialLag = serialLag;
+        this.pool = pool;
+    }
+
+    /**
+     * Проверяет выборку целых чисел на равномерность в диапазоне [min, max].
+     * Исходный массив не изменяется. Побитовые тесты к такой выборке не применяются.
+     *
+     * @param sample выборка.
+     * @param min    минимальное допустимое значение (включительно).
+     * @param max    максимальное допустимое значение (включительно).
+     * @return результаты тестов.
+     */
+    public StatisticalReport analyze(int[] sample, long min, long max) {
+        long range = checkedRange(min, max);
+        Accumulator total = pool.invoke(new IntTask(sample, 0, sample.length, min, range, serialLag));
+        double ksStatistic = kolmogorovSmirnovStatistic(sample, min, max);
+        return report(total, ksStatistic, Distributions.kolmogorovSmirnovPValue(ksStatistic, total.count),
+                expectedIntBinCounts(range, total.count), false);
+    }
+
+    /**
+     * Проверяет байтовые данные на равномерность значений [0, 255] и побитовую сбалансированность.
+     *
+     * @param data данные.
+     * @return результаты тестов.
+     */
+    public StatisticalReport analyze(byte[] data) {
+        return analyze(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Проверяет байты буфера от нулевой позиции до {@code limit()}.
+     * Позиция буфера не изменяется.
+     *
+     * @param data данные.
+     * @return результаты тестов.
+     */
+    public StatisticalReport analyze(ByteBuffer data) {
+        return byteReport(pool.invoke(new ByteTask(data, 0, data.limit(), serialLag)));
+    }
+
+    /**
+     * Проверяет содержимое файла как поток случайных байтов. Файл отображается в память
+     * фрагментами; каждый фрагмент захватывает соседние байты, чтобы серии и пары со сдвигом
+     * на границах фрагментов учитывались без потерь.
+     *
+     * @param file путь к файлу.
+     * @return результаты тестов.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    public StatisticalReport analyze(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Accumulator total = new Accumulator();
+            for (long start = 0; start < size; start += MAP_CHUNK_SIZE) {
+                long end = Math.min(size, start + MAP_CHUNK_SIZE);
+                long mapStart = start > 0 ? start - 1 : 0;
+                long mapEnd = Math.min(size, end + serialLag);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+                total.merge(pool.invoke(new ByteTask(chunk, (int) (start - mapStart), (int) (end - mapStart), serialLag)));
+            }
+            return byteReport(total);
+        }
+    }
+
+    /**
+     * Вычисляет статистику Колмогорова-Смирнова для равномерного дискретного распределения
+     * на [min, max]. Выборка копируется и сортируется параллельно, исходный массив не изменяется.
+     *
+     * @param sample выборка.
+     * @param min    минимальное значение диапазона (включительно).
+     * @param max    максимальное значение диапазона (включительно).
+     * @return статистика D.
+     */
+    public static double kolmogorovSmirnovStatistic(int[] sample, long min, long max) {
+        long range = checkedRange(min, max);
+        int n = sample.length;
+        if (n == 0) {
+            return 0.0;
+        }
+        int[] sorted = sample.clone();
+        Arrays.parallelSort(sorted);
+        return IntStream.range(0, n).parallel()
+                .mapToDouble(i -> {
+                    double below = (double) (sorted[i] - min) / range; // F(x_i - 0)
+                    double atOrBelow = (double) (sorted[i] - min + 1) / range; // F(x_i)
+                    return Math.max((double) (i + 1) / n - atOrBelow, below - (double) i / n);
+                })
+                .max()
+                .orElse(0.0);
+    }
+
+    private static long checkedRange(long min, long max) {
+        if (max < min) {
+            throw new IllegalArgumentException(String.format(INVALID_RANGE, min, max));
+        }
+        return max - min + 1;
+    }
+
+    // Ожидаемое количество значений в каждой корзине равной ширины для диапазона из range значений
+    private static double[] expectedIntBinCounts(long range, long n) {
+        double[] expected = new double[BINS];
+        for (int bin = 0; bin < BINS; bin++) {
+            long first = ceilDiv(bin * range, BINS);
+            long next = ceilDiv((bin + 1) * range, BINS);
+            expected[bin] = (double) n * (next - first) / range;
+        }
+        return expected;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    private StatisticalReport byteReport(Accumulator total) {
+        long n = total.count;
+        // Статистика D по гистограмме: для байтов сортировка не нужна
+        long cumulative = 0;
+        double ksStatistic = 0.0;
+        for (int k = 0; k < BINS; k++) {
+            cumulative += total.histogram[k];
+            ksStatistic = Math.max(ksStatistic, Math.abs((double) cumulative / Math.max(1, n) - (double) (k + 1) / BINS));
+        }
+        double[] expected = new double[BINS];
+        Arrays.fill(expected, (double) n / BINS);
+        // Для дискретного распределения асимптотическое p-значение консервативно
+        return report(total, ksStatistic, Distributions.kolmogorovSmirnovAsymptoticPValue(ksStatistic, n), expected, true);
+    }
+
+    private StatisticalReport report(Accumulator total, double ksStatistic, double ksPValue,
+                                     double[] expected, boolean bitTests) {
+        long n = total.count;
+        if (n == 0) {
+            return new StatisticalReport(0, 0.0, Double.NaN, 0.0, BINS, Double.NaN, 0, Double.NaN,
+                    serialLag, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        // Хи-квадрат по корзинам с ненулевым ожиданием
+        double chiSquare = 0.0;
+        int usedBins = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            if (expected[bin] > 0) {
+                double difference = total.histogram[bin] - expected[bin];
+                chiSquare += difference * difference / expected[bin];
+                usedBins++;
+            }
+        }
+        double chiSquarePValue = usedBins > 1 ? Distributions.chiSquarePValue(chiSquare, usedBins - 1) : Double.NaN;
+
+        // Тест серий Вальда-Вольфовица относительно середины диапазона
+        long runs = total.transitions + 1;
+        double runsPValue;
+        long above = total.above;
+        long below = n - above;
+        if (n < 2) {
+            runsPValue = Double.NaN;
+        } else if (above == 0 || below == 0) {
+            runsPValue = 0.0; // Все значения по одну сторону от середины
+        } else {
+            double mean = 2.0 * above * below / n + 1.0;
+            double variance = (mean - 1.0) * (mean - 2.0) / (n - 1.0);
+            runsPValue = variance > 0 ? Distributions.normalTwoSidedPValue((runs - mean) / Math.sqrt(variance)) : Double.NaN;
+        }
+
+        // Последовательная корреляция со сдвигом k
+        double mean = total.sum / n;
+        double variance = total.sumSquares / n - mean * mean;
+        double serialCorrelation = Double.NaN;
+        double serialPValue = Double.NaN;
+        if (total.lagPairs > 0 && variance > 0) {
+            serialCorrelation = (total.lagProducts / total.lagPairs - mean * mean) / variance;
+            serialPValue = Distributions.normalTwoSidedPValue(serialCorrelation * Math.sqrt(total.lagPairs));
+        }
+
+        double monobitPValue = Double.NaN;
+        double blockFrequencyPValue = Double.NaN;
+        if (bitTests) {
+            double s = 2.0 * total.ones - total.bits;
+            monobitPValue = Distributions.erfc(Math.abs(s) / Math.sqrt(total.bits) / Math.sqrt(2.0));
+            if (total.blocks > 0) {
+                double blockChiSquare = 4.0 * BLOCK_BITS * total.blockDeviation;
+                blockFrequencyPValue = Distributions.regularizedGammaQ(total.blocks / 2.0, blockChiSquare / 2.0);
+            }
+        }
+
+        return new StatisticalReport(n, ksStatistic, ksPValue, chiSquare, usedBins, chiSquarePValue,
+                runs, runsPValue, serialLag, serialCorrelation, serialPValue, monobitPValue, blockFrequencyPValue);
+    }
+
+    /**
+     * Частичные суммы одного блока данных.
+     */
+    private static final class Accumulator {
+        final long[] histogram = new long[BINS];
+        long count;
+        double sum;
+        double sumSquares;
+        double lagProducts;
+        long lagPairs;
+        long above; // Количество значений в верхней половине диапазона
+        long transitions; // Количество смен половины диапазона между соседними значениями
+        long ones; // Количество единичных бит
+        long bits; // Общее количество бит
+        double blockDeviation; // Σ (π_i - 1/2)² по блокам частотного теста
+        long blocks;
+
+        Accumulator merge(Accumulator other) {
+            for (int i = 0; i < BINS; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            count += other.count;
+            sum += other.sum;
+            sumSquares += other.sumSquares;
+            lagProducts += other.lagProducts;
+            lagPairs += other.lagPairs;
+            above += other.above;
+            transitions += other.transitions;
+            ones += other.ones;
+            bits += other.bits;
+            blockDeviation += other.blockDeviation;
+            blocks += other.blocks;
+            return this;
+        }
+    }
+
+    /**
+     * Обработка диапазона [from, to) байтового буфера. Байты до from и после to
+     * используются только для подсчета серий и пар со сдвигом на границах.
+     */
+    private static final class ByteTask extends RecursiveTask<Accumulator> {
+        private final ByteBuffer buffer;
+        private final int from;
+        private final int to;
+        private final int lag;
+
+        ByteTask(ByteBuffer buffer, int from, int to, int lag) {
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.lag = lag;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return accumulate();
+            }
+            // Граница деления кратна размеру блока частотного теста
+            int middle = from + (to - from) / 2 / BLOCK_BYTES * BLOCK_BYTES;
+            ByteTask left = new ByteTask(buffer, from, middle, lag);
+            left.fork();
+            Accumulator right = new ByteTask(buffer, middle, to, lag).compute();
+            return left.join().merge(right);
+        }
+
+        private Accumulator accumulate() {
+            Accumulator acc = new Accumulator();
+            long[] histogram = acc.histogram;
+            int limit = buffer.limit();
+            long sum = 0;
+            long sumSquares = 0;
+            long lagProducts = 0;
+            long above = 0;
+            long transitions = 0;
+            int previousSide = from > 0 ? (buffer.get(from - 1) & 0xFF) >>> 7 : -1;
+            int lagEnd = Math.min(to, limit - lag); // Индексы, для которых существует пара со сдвигом
+
+            for (int i = from; i < to; i++) {
+                int value = buffer.get(i) & 0xFF;
+                histogram[value]++;
+                sum += value;
+                sumSquares += value * value;
+                int side = value >>> 7;
+                above += side;
+                if (previousSide >= 0 && side != previousSide) {
+                    transitions++;
+                }
+                previousSide = side;
+            }
+            for (int i = from; i < lagEnd; i++) {
+                lagProducts += (buffer.get(i) & 0xFF) * (buffer.get(i + lag) & 0xFF);
+            }
+
+            // Побитовые тесты: блоки по 128 бит читаются двумя словами long
+            long ones = 0;
+            double blockDeviation = 0.0;
+            int i = from;
+            for (; i + BLOCK_BYTES <= to; i += BLOCK_BYTES) {
+                int blockOnes = Long.bitCount(buffer.getLong(i)) + Long.bitCount(buffer.getLong(i + Long.BYTES));
+                ones += blockOnes;
+                double deviation = (double) blockOnes / BLOCK_BITS - 0.5;
+                blockDeviation += deviation * deviation;
+                acc.blocks++;
+            }
+            for (; i < to; i++) {
+                ones += Integer.bitCount(buffer.get(i) & 0xFF);
+            }
+
+            acc.count = to - from;
+            acc.sum = sum;
+            acc.sumSquares = sumSquares;
+            acc.lagProducts = lagProducts;
+            acc.lagPairs = Math.max(0, lagEnd - from);
+            acc.above = above;
+            acc.transitions = transitions;
+            acc.ones = ones;
+            acc.bits = (long) (to - from) * Byte.SIZE;
+            acc.blockDeviation = blockDeviation;
+            return acc;
+        }
+    }
+
+    /**
+     * Обработка диапазона [from, to) массива целых чисел из диапазона [min, min + range).
+     */
+    private static final class IntTask extends RecursiveTask<Accumulator> {
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final long min;
+        private final long range;
+        private final int lag;
+
+        IntTask(int[] values, int from, int to, long min, long range, int lag) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.min = min;
+            this.range = range;
+            this.lag = lag;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                return accumulate();
+            }
+            int middle = from + (to - from) / 2;
+            IntTask left = new IntTask(values, from, middle, min, range, lag);
+            left.fork();
+            Accumulator right = new IntTask(values, middle, to, min, range, lag).compute();
+            return left.join().merge(right);
+        }
+
+        private Accumulator accumulate() {
+            Accumulator acc = new Accumulator();
+            long[] histogram = acc.histogram;
+            double scale = 1.0 / range; // Значения нормируются в [0, 1) для устойчивости сумм
+            double sum = 0.0;
+            double sumSquares = 0.0;
+            double lagProducts = 0.0;
+            long above = 0;
+            long transitions = 0;
+            int previousSide = from > 0 ? side(values[from - 1]) : -1;
+            int lagEnd = Math.min(to, values.length - lag);
+
+            for (int i = from; i < to; i++) {
+                long offset = values[i] - min;
+                if (offset < 0 || offset >= range) {
+                    throw new IllegalArgumentException(String.format(VALUE_OUT_OF_RANGE, values[i], min, min + range - 1));
+                }
+                histogram[(int) (offset * BINS / range)]++;
+                double x = offset * scale;
+                sum += x;
+                sumSquares += x * x;
+                int side = offset * 2 >= range ? 1 : 0;
+                above += side;
+                if (previousSide >= 0 && side != previousSide) {
+                    transitions++;
+                }
+                previousSide = side;
+            }
+            for (int i = from; i < lagEnd; i++) {
+                lagProducts += ((values[i] - min) * scale) * ((values[i + lag] - min) * scale);
+            }
+
+            acc.count = to - from;
+            acc.sum = sum;
+            acc.sumSquares = sumSquares;
+            acc.lagProducts = lagProducts;
+            acc.lagPairs = Math.max(0, lagEnd - from);
+            acc.above = above;
+            acc.transitions = transitions;
+            return acc;
+        }
+
+        private int side(int value) {
+            return (value - min) * 2 >= range ? 1 : 0;
+        }
+    }
+
+}
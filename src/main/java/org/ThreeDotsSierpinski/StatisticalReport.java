@@ -0,0 +1,62 @@
+package org.ThreeDotsSierpinski;
+
+/**
+ * Результаты набора статистических тестов над выборкой случайных чисел.
+ * Для тестов, неприменимых к выборке, p-значение равно {@link Double#NaN}.
+ *
+ * @param sampleSize            размер выборки
+ * @param ksStatistic           статистика Колмогорова-Смирнова D
+ * @param ksPValue              p-значение теста Колмогорова-Смирнова
+ * @param chiSquare             статистика хи-квадрат по корзинам равной ширины
+ * @param chiSquareBins         количество корзин теста хи-квадрат
+ * @param chiSquarePValue       p-значение теста хи-квадрат
+ * @param runs                  количество серий выше/ниже середины диапазона (тест Вальда-Вольфовица)
+ * @param runsPValue            p-значение теста серий
+ * @param serialLag             сдвиг k для теста последовательной корреляции
+ * @param serialCorrelation     коэффициент автокорреляции со сдвигом k
+ * @param serialPValue          p-значение теста последовательной корреляции
+ * @param monobitPValue         p-значение частотного побитового теста (NIST SP 800-22)
+ * @param blockFrequencyPValue  p-значение частотного теста по блокам (NIST SP 800-22)
+ */
+public record StatisticalReport(long sampleSize,
+                                double ksStatistic,
+                                double ksPValue,
+                                double chiSquare,
+                                int chiSquareBins,
+                                double chiSquarePValue,
+                                long runs,
+                                double runsPValue,
+                                int serialLag,
+                                double serialCorrelation,
+                                double serialPValue,
+                                double monobitPValue,
+                                double blockFrequencyPValue) {
+
+    /**
+     * Проверяет, что ни один из применимых тестов не отверг гипотезу случайности.
+     *
+     * @param alpha уровень значимости.
+     * @return {@code true}, если все p-значения не меньше alpha.
+     */
+    public boolean passed(double alpha) {
+        return passes(ksPValue, alpha)
+                && passes(chiSquarePValue, alpha)
+                && passes(runsPValue, alpha)
+                && passes(serialPValue, alpha)
+                && passes(monobitPValue, alpha)
+                && passes(blockFrequencyPValue, alpha);
+    }
+
+    private static boolean passes(double pValue, double alpha) {
+        return Double.isNaN(pValue) || pValue >= alpha;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d; KS: D=%.6f, p=%.4f; χ²(%d)=%.2f, p=%.4f; серии: %d, p=%.4f; "
+                        + "корреляция (k=%d): r=%.6f, p=%.4f; monobit: p=%.4f; блоки: p=%.4f",
+                sampleSize, ksStatistic, ksPValue, chiSquareBins - 1, chiSquare, chiSquarePValue,
+                runs, runsPValue, serialLag, serialCorrelation, serialPValue, monobitPValue, blockFrequencyPValue);
+    }
+
+}
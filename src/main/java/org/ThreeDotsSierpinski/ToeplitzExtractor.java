@@ -0,0 +1,199 @@
+package org.ThreeDotsSierpinski;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Экстрактор случайности на основе хеширования матрицей Тёплица.
+ * <p>
+ * Каждый блок из n входных битов умножается над GF(2) на матрицу Тёплица m x n, заданную
+ * n + m - 1 битами зерна. Семейство таких матриц 2-универсально, поэтому по лемме об остаточном
+ * хешировании выход на ε-близок к равномерному, если минимальная энтропия блока не меньше
+ * m + 2 log(1/ε) бит. Отношение n : m задает, во сколько раз сжимается вход. Оценка верна, только если
+ * зерно равномерно распределено по всем n + m - 1 битам и не зависит от входа, поэтому зерно передается
+ * целиком, а не растягивается генератором из короткого значения.
+ * <p>
+ * Произведение вычисляется по столбцам: выход — XOR столбцов матрицы, соответствующих единичным
+ * битам входа. Столбцы упакованы в long, а для каждой четверки входных битов заранее вычислены
+ * все 16 сумм столбцов, поэтому блок обрабатывается за n / 4 выборок из таблицы по m / 64 слов
+ * (метод «четырех русских»). Блоки независимы и обрабатываются параллельно в {@link ForkJoinPool}.
+ */
+public class ToeplitzExtractor {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int BLOCKS_PER_TASK = 256; // Количество блоков, обрабатываемых без деления задачи
+    private static final int GROUP_BITS = 4; // Входные биты, объединяемые в одну выборку из таблицы
+    private static final int GROUP_VALUES = 1 << GROUP_BITS;
+
+    private static final String INVALID_BLOCK_SIZES = "Размеры блоков должны быть кратны 64 и 0 < m <= n: n=%d, m=%d";
+    private static final String INVALID_INPUT_LENGTH = "Длина входа %d не кратна размеру блока %d байт";
+    private static final String INVALID_SEED_LENGTH = "Зерно должно содержать %d байт (n + m - 1 бит), получено %d";
+
+    private final int inputWords; // n / 64
+    private final int outputWords; // m / 64
+    private final long[] table; // Суммы столбцов: table[(g * 16 + v) * outputWords + w] для группы g и значения v
+    private final ForkJoinPool pool;
+
+    /**
+     * @param seed       зерно матрицы из {@link #seedBytes} байт; бит d — бит {@code d % 8} байта {@code d / 8}.
+     *                   Должно быть равномерным и независимым от входных данных.
+     * @param inputBits  размер входного блока n в битах (кратен 64).
+     * @param outputBits размер выходного блока m в битах (кратен 64, не больше n).
+     */
+    public ToeplitzExtractor(byte[] seed, int inputBits, int outputBits) {
+        this(seed, inputBits, outputBits, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param seed       зерно матрицы из {@link #seedBytes} байт; бит d — бит {@code d % 8} байта {@code d / 8}.
+     *                   Должно быть равномерным и независимым от входных данных.
+     * @param inputBits  размер входного блока n в битах (кратен 64).
+     * @param outputBits размер выходного блока m в битах (кратен 64, не больше n).
+     * @param pool       пул потоков для параллельной обработки блоков.
+     */
+    public ToeplitzExtractor(byte[] seed, int inputBits, int outputBits, ForkJoinPool pool) {
+        if (inputBits <= 0 || outputBits <= 0 || inputBits % 64 != 0 || outputBits % 64 != 0 || outputBits > inputBits) {
+            throw new IllegalArgumentException(String.format(INVALID_BLOCK_SIZES, inputBits, outputBits));
+        }
+        if (seed.length != seedBytes(inputBits, outputBits)) {
+            throw new IllegalArgumentException(String.format(INVALID_SEED_LENGTH,
+                    seedBytes(inputBits, outputBits), seed.length));
+        }
+        inputWords = inputBits / 64;
+        outputWords = outputBits / 64;
+        this.pool = pool;
+
+        // Диагонали матрицы: T[i][j] = s[i - j + n - 1]
+        int diagonals = inputBits + outputBits - 1;
+        long[] seedBits = new long[(diagonals + 63) / 64];
+        for (int d = 0; d < diagonals; d++) {
+            if ((seed[d >>> 3] >>> (d & 7) & 1) != 0) {
+                seedBits[d >>> 6] |= 1L << d;
+            }
+        }
+        // Столбец j — окно зерна s[n - 1 - j .. n - 1 - j + m - 1]
+        long[] columns = new long[inputBits * outputWords];
+        for (int j = 0; j < inputBits; j++) {
+            for (int i = 0; i < outputBits; i++) {
+                int diagonal = i - j + inputBits - 1;
+                if ((seedBits[diagonal >>> 6] >>> diagonal & 1L) != 0) {
+                    columns[j * outputWords + (i >>> 6)] |= 1L << i;
+                }
+            }
+        }
+        int groups = inputBits / GROUP_BITS;
+        table = new long[groups * GROUP_VALUES * outputWords];
+        for (int group = 0; group < groups; group++) {
+            for (int value = 1; value < GROUP_VALUES; value++) {
+                // Сумма для value = сумма для value без младшего бита XOR столбец этого бита
+                int lowest = Integer.numberOfTrailingZeros(value);
+                int target = (group * GROUP_VALUES + value) * outputWords;
+                int previous = (group * GROUP_VALUES + (value & (value - 1))) * outputWords;
+                int column = (group * GROUP_BITS + lowest) * outputWords;
+                for (int w = 0; w < outputWords; w++) {
+                    table[target + w] = table[previous + w] ^ columns[column + w];
+                }
+            }
+        }
+    }
+
+    /**
+     * @param inputBits  размер входного блока n в битах.
+     * @param outputBits размер выходного блока m в битах.
+     * @return размер зерна в байтах: n + m - 1 бит, округленные вверх до байта.
+     */
+    public static int seedBytes(int inputBits, int outputBits) {
+        return (inputBits + outputBits - 1 + 7) / 8;
+    }
+
+    /**
+     * @return размер входного блока в байтах.
+     */
+    public int getInputBlockBytes() {
+        return inputWords * Long.BYTES;
+    }
+
+    /**
+     * @return размер выходного блока в байтах.
+     */
+    public int getOutputBlockBytes() {
+        return outputWords * Long.BYTES;
+    }
+
+    /**
+     * Извлекает случайные байты из входных данных.
+     *
+     * @param input входные данные; длина кратна {@link #getInputBlockBytes()}.
+     * @return выход длиной (input.length / n) * m бит.
+     */
+    public byte[] extract(byte[] input) {
+        int inputBlockBytes = getInputBlockBytes();
+        if (input.length % inputBlockBytes != 0) {
+            throw new IllegalArgumentException(String.format(INVALID_INPUT_LENGTH, input.length, inputBlockBytes));
+        }
+        int blocks = input.length / inputBlockBytes;
+        byte[] output = new byte[blocks * getOutputBlockBytes()];
+        if (blocks <= BLOCKS_PER_TASK) {
+            extractBlocks(input, output, 0, blocks);
+        } else {
+            pool.invoke(new ExtractTask(input, output, 0, blocks));
+        }
+        return output;
+    }
+
+    // Последовательная обработка блоков [from, to)
+    private void extractBlocks(byte[] input, byte[] output, int from, int to) {
+        long[] result = new long[outputWords];
+        int groupsPerWord = Long.SIZE / GROUP_BITS;
+        for (int block = from; block < to; block++) {
+            int inputOffset = block * inputWords * Long.BYTES;
+            Arrays.fill(result, 0L);
+            for (int k = 0; k < inputWords; k++) {
+                long word = (long) LONGS.get(input, inputOffset + k * Long.BYTES);
+                int entry = k * groupsPerWord * GROUP_VALUES;
+                for (int g = 0; g < groupsPerWord; g++, entry += GROUP_VALUES, word >>>= GROUP_BITS) {
+                    int base = (entry + (int) (word & (GROUP_VALUES - 1))) * outputWords;
+                    for (int w = 0; w < outputWords; w++) {
+                        result[w] ^= table[base + w];
+                    }
+                }
+            }
+            int outputOffset = block * outputWords * Long.BYTES;
+            for (int w = 0; w < outputWords; w++) {
+                LONGS.set(output, outputOffset + w * Long.BYTES, result[w]);
+            }
+        }
+    }
+
+    /**
+     * Задача обработки диапазона блоков с делением пополам.
+     */
+    private final class ExtractTask extends RecursiveAction {
+        private final byte[] input;
+        private final byte[] output;
+        private final int from;
+        private final int to;
+
+        ExtractTask(byte[] input, byte[] output, int from, int to) {
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BLOCKS_PER_TASK) {
+                extractBlocks(input, output, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ExtractTask(input, output, from, middle), new ExtractTask(input, output, middle, to));
+        }
+    }
+
+}
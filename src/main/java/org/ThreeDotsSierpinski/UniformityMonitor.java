@@ -0,0 +1,196 @@
+package org.ThreeDotsSierpinski;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Инкрементальный монитор равномерности потока случайных байтов на основе теста Колмогорова-Смирнова.
+ * <p>
+ * Вместо хранения всей выборки монитор держит гистограмму из 256 корзин по всем байтам
+ * и такую же гистограмму по скользящему окну последних {@code windowSize} байтов.
+ * Добавление байта выполняется за O(1), вычисление статистики и p-значения — за O(256),
+ * объем памяти фиксирован и не зависит от длины потока.
+ */
+public class UniformityMonitor implements UniformityMonitorMBean {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    // Строковые константы
+    private static final String OBJECT_NAME = "org.ThreeDotsSierpinski:type=UniformityMonitor,name=";
+    private static final String LOG_REPORT = "Тест Колмогорова-Смирнова: n=%d, D=%.5f, p=%.4f; окно %d: D=%.5f, p=%.4f";
+    private static final String LOG_NON_UNIFORM = "Поток случайных чисел не проходит тест равномерности (p=%.6f < %.3f).";
+    private static final String LOG_JMX_FAILED = "Не удалось зарегистрировать монитор равномерности в JMX.";
+
+    // Константы конфигурации
+    private static final int BINS = 256; // Количество возможных значений байта
+    private static final int DEFAULT_WINDOW_SIZE = 1 << 16; // Размер скользящего окна по умолчанию (в байтах)
+    private static final int REPORT_INTERVAL_SECONDS = 10; // Интервал записи результатов в лог
+    private static final double ALERT_P_VALUE = 0.001; // Порог p-значения для предупреждения в логе
+
+    private final long[] cumulativeCounts = new long[BINS]; // Гистограмма по всем байтам
+    private final long[] windowCounts = new long[BINS]; // Гистограмма по скользящему окну
+    private final byte[] window; // Кольцевой буфер последних байтов
+    private long sampleCount = 0; // Общее количество учтенных байтов
+    private int windowPosition = 0; // Позиция записи в кольцевом буфере
+
+    private final ScheduledExecutorService reporter;
+    private ObjectName objectName;
+
+    public UniformityMonitor() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public UniformityMonitor(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Размер окна должен быть положительным: " + windowSize);
+        }
+        window = new byte[windowSize];
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "uniformity-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Учитывает очередной байт потока.
+     *
+     * @param value значение байта в диапазоне [0, 255].
+     */
+    public synchronized void record(int value) {
+        int bin = value & 0xFF;
+        cumulativeCounts[bin]++;
+        if (sampleCount >= window.length) {
+            windowCounts[window[windowPosition] & 0xFF]--; // Вытесняем самый старый байт из окна
+        }
+        window[windowPosition] = (byte) bin;
+        windowCounts[bin]++;
+        windowPosition = (windowPosition + 1) % window.length;
+        sampleCount++;
+    }
+
+    /**
+     * Регистрирует монитор в JMX и запускает периодическую запись результатов в лог.
+     *
+     * @param name имя экземпляра для ObjectName.
+     */
+    public void start(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(OBJECT_NAME + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, LOG_JMX_FAILED, e);
+            objectName = null;
+        }
+        reporter.scheduleAtFixedRate(this::report, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Останавливает запись в лог и снимает регистрацию в JMX.
+     */
+    public void shutdown() {
+        reporter.shutdownNow();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (InstanceNotFoundException ignored) {
+                // Уже снят с регистрации
+            } catch (JMException e) {
+                LOGGER.log(Level.FINE, LOG_JMX_FAILED, e);
+            }
+            objectName = null;
+        }
+    }
+
+    // Метод для периодической записи результатов теста в лог
+    private void report() {
+        long n;
+        double cumulativeD;
+        double windowD;
+        int windowN;
+        synchronized (this) {
+            n = sampleCount;
+            cumulativeD = statistic(cumulativeCounts, n);
+            windowN = (int) Math.min(n, window.length);
+            windowD = statistic(windowCounts, windowN);
+        }
+        if (n == 0) {
+            return;
+        }
+        double cumulativeP = Distributions.kolmogorovSmirnovAsymptoticPValue(cumulativeD, n);
+        double windowP = Distributions.kolmogorovSmirnovAsymptoticPValue(windowD, windowN);
+        LOGGER.info(String.format(LOG_REPORT, n, cumulativeD, cumulativeP, windowN, windowD, windowP));
+        if (windowP < ALERT_P_VALUE) {
+            LOGGER.warning(String.format(LOG_NON_UNIFORM, windowP, ALERT_P_VALUE));
+        }
+    }
+
+    @Override
+    public synchronized long getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public int getWindowSize() {
+        return window.length;
+    }
+
+    @Override
+    public synchronized double getCumulativeStatistic() {
+        return statistic(cumulativeCounts, sampleCount);
+    }
+
+    @Override
+    public double getCumulativePValue() {
+        long n;
+        double d;
+        synchronized (this) {
+            n = sampleCount;
+            d = statistic(cumulativeCounts, n);
+        }
+        return Distributions.kolmogorovSmirnovAsymptoticPValue(d, n);
+    }
+
+    @Override
+    public synchronized double getWindowStatistic() {
+        return statistic(windowCounts, Math.min(sampleCount, window.length));
+    }
+
+    @Override
+    public double getWindowPValue() {
+        long n;
+        double d;
+        synchronized (this) {
+            n = Math.min(sampleCount, window.length);
+            d = statistic(windowCounts, n);
+        }
+        return Distributions.kolmogorovSmirnovAsymptoticPValue(d, n);
+    }
+
+    // Статистика D = max |F_эмп(k) - F_теор(k)| для дискретного равномерного распределения на [0, 255]
+    private static double statistic(long[] counts, long n) {
+        if (n == 0) {
+            return 0.0;
+        }
+        long cumulative = 0;
+        double maxDeviation = 0.0;
+        for (int k = 0; k < BINS; k++) {
+            cumulative += counts[k];
+            double deviation = Math.abs((double) cumulative / n - (double) (k + 1) / BINS);
+            maxDeviation = Math.max(maxDeviation, deviation);
+        }
+        return maxDeviation;
+    }
+
+}
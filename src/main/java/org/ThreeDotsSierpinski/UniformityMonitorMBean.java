@@ -0,0 +1,38 @@
+package org.ThreeDotsSierpinski;
+
+/**
+ * JMX-интерфейс монитора равномерности потока случайных байтов.
+ */
+public interface UniformityMonitorMBean {
+
+    /**
+     * @return общее количество учтенных байтов.
+     */
+    long getSampleCount();
+
+    /**
+     * @return размер скользящего окна (в байтах).
+     */
+    int getWindowSize();
+
+    /**
+     * @return статистика Колмогорова-Смирнова D по всем учтенным байтам.
+     */
+    double getCumulativeStatistic();
+
+    /**
+     * @return p-значение для статистики по всем учтенным байтам.
+     */
+    double getCumulativePValue();
+
+    /**
+     * @return статистика Колмогорова-Смирнова D по скользящему окну.
+     */
+    double getWindowStatistic();
+
+    /**
+     * @return p-значение для статистики по скользящему окну.
+     */
+    double getWindowPValue();
+
+}
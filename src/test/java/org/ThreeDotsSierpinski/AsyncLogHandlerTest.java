@@ -0,0 +1,117 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncLogHandlerTest {
+
+    @Test
+    public void testFullBufferDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Handler blockingDelegate = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                entered.countDown();
+                try {
+                    release.await(); // Имитация медленного диска
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncLogHandler handler = new AsyncLogHandler(blockingDelegate, 4);
+
+        // Фоновый поток забрал первую запись и ждет диска; дальше принимается только емкость буфера
+        handler.publish(new LogRecord(Level.INFO, "record 0"));
+        entered.await();
+        for (int i = 1; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        }
+
+        assertEquals(100 - 1 - 4, handler.getDroppedCount());
+        release.countDown();
+        handler.close();
+        assertEquals(100, handler.getDroppedCount() + handler.getPublishedCount());
+        assertEquals(5, handler.getPublishedCount());
+    }
+
+    @Test
+    public void testFailedWritesAreCountedAsDropped() {
+        Handler failingDelegate = new Handler() {
+            private int calls;
+
+            @Override
+            public void publish(LogRecord record) {
+                if (++calls % 3 == 0) {
+                    throw new IllegalStateException("Ошибка записи");
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncLogHandler handler = new AsyncLogHandler(failingDelegate, 1024);
+        handler.setErrorManager(new ErrorManager() {
+            @Override
+            public synchronized void error(String msg, Exception ex, int code) {
+                // Ошибки ожидаемы
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        }
+        handler.close();
+
+        assertTrue(handler.getDroppedCount() > 0);
+        assertEquals(100, handler.getDroppedCount() + handler.getPublishedCount());
+    }
+
+    @Test
+    public void testRotationKeepsLimitedArchives() throws IOException {
+        Path directory = Files.createTempDirectory("logs");
+        Path logFile = directory.resolve("app.log");
+        RollingFileHandler fileHandler = new RollingFileHandler(logFile, 1024, 2);
+        fileHandler.setFormatter(new SimpleFormatter());
+        AsyncLogHandler handler = new AsyncLogHandler(fileHandler, 1024);
+
+        for (int i = 0; i < 200; i++) {
+            handler.publish(new LogRecord(Level.INFO, "Сообщение номер " + i));
+        }
+        handler.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            long archives = files.filter(path -> path.getFileName().toString().startsWith("app-")).count();
+            assertEquals(2, archives);
+        }
+        assertTrue(Files.size(logFile) > 0);
+        assertEquals(0, handler.getDroppedCount());
+    }
+}
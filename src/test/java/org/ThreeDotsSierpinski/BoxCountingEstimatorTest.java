@@ -0,0 +1,87 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoxCountingEstimatorTest {
+
+    private static final int SIZE = 900;
+
+    @Test
+    public void testSierpinskiDimension() {
+        BoxCountingEstimator estimator = new BoxCountingEstimator(SIZE);
+        Random random = new Random(3);
+        int[][] vertices = {{SIZE / 2, 0}, {0, SIZE}, {SIZE, SIZE}};
+        int x = SIZE / 2;
+        int y = SIZE / 2;
+        for (int i = 0; i < 200_000; i++) {
+            int[] vertex = vertices[random.nextInt(3)];
+            x = (x + vertex[0]) / 2;
+            y = (y + vertex[1]) / 2;
+            estimator.record(x, y);
+        }
+
+        assertEquals(BoxCountingEstimator.SIERPINSKI_DIMENSION, estimator.getDimension(), 0.05);
+        assertTrue(estimator.isConverged(1e-3), "Оценка должна стабилизироваться: " + estimator.getRateOfChange());
+    }
+
+    @Test
+    public void testRepeatedPointsSaturateWithoutConverging() {
+        BoxCountingEstimator estimator = new BoxCountingEstimator(SIZE);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < 1000; i++) {
+                estimator.record(i % 30 * 30, i / 30 * 27);
+            }
+        }
+
+        // Повтор тех же точек не занимает новых ячеек: оценка не меняется, но сходящейся не считается
+        assertTrue(estimator.isSaturated());
+        assertFalse(estimator.isConverged(1e-3));
+    }
+
+    @Test
+    public void testFilledSquareAndLine() {
+        BoxCountingEstimator square = new BoxCountingEstimator(SIZE);
+        BoxCountingEstimator line = new BoxCountingEstimator(SIZE);
+        for (int x = 0; x <= SIZE; x++) {
+            line.record(x, x);
+            for (int y = 0; y <= SIZE; y++) {
+                square.record(x, y);
+            }
+        }
+
+        assertEquals(2.0, square.getDimension(), 0.01);
+        assertEquals(1.0, line.getDimension(), 0.01);
+    }
+
+    @Test
+    public void testSnapshotRestoresOccupancyAndCounters() {
+        BoxCountingEstimator original = new BoxCountingEstimator(SIZE);
+        Random random = new Random(11);
+        for (int i = 0; i < 30_000; i++) {
+            original.record(random.nextInt(SIZE + 1), random.nextInt(SIZE / 3));
+        }
+        BoxCountingEstimator restored = new BoxCountingEstimator(SIZE);
+        restored.record(SIZE, SIZE); // Состояние до восстановления отбрасывается
+        restored.restore(original.snapshot());
+
+        assertEquals(original.getPointCount(), restored.getPointCount());
+        assertEquals(original.getDimension(), restored.getDimension(), 0.0);
+        assertEquals(original.getRateOfChange(), restored.getRateOfChange(), 0.0);
+
+        // После восстановления обе оценки продолжаются одинаково
+        for (int i = 0; i < 2_000; i++) {
+            int x = random.nextInt(SIZE + 1);
+            int y = random.nextInt(SIZE + 1);
+            original.record(x, y);
+            restored.record(x, y);
+        }
+        assertEquals(original.getDimension(), restored.getDimension(), 0.0);
+        assertEquals(original.getRateOfChange(), restored.getRateOfChange(), 0.0);
+    }
+}
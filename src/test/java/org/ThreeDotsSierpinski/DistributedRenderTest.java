@@ -0,0 +1,165 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DistributedRenderTest {
+
+    private static final int WORKERS = 3;
+    private static final long DRAWS = 200_003;
+    private static final int BURN_IN = 16;
+
+    @Test
+    public void testResumedRenderMatchesUninterrupted() throws IOException {
+        RenderJob straight = new RenderJob(Files.createTempDirectory("render"), WORKERS, DRAWS, 5, null);
+        RenderJob interrupted = new RenderJob(Files.createTempDirectory("render"), WORKERS, DRAWS, 5, null);
+
+        for (int worker = 0; worker < WORKERS; worker++) {
+            assertTrue(RenderWorker.run(straight, worker, Long.MAX_VALUE));
+        }
+        // Имитация сбоев: каждый рабочий процесс останавливается и возобновляется с сохраненного состояния
+        for (int worker = 0; worker < WORKERS; worker++) {
+            int runs = 1;
+            while (!RenderWorker.run(interrupted, worker, 9_999)) {
+                runs++;
+            }
+            assertTrue(runs > 1);
+            assertTrue(DistributedRenderer.isShardComplete(interrupted, worker));
+        }
+
+        long[] expected = DistributedRenderer.merge(straight);
+        long[] resumed = DistributedRenderer.merge(interrupted);
+        assertArrayEquals(expected, resumed);
+        assertEquals(DRAWS - (long) BURN_IN * WORKERS, sum(expected));
+    }
+
+    @Test
+    public void testEntropyFileSlicesAreDisjoint() throws IOException {
+        Path directory = Files.createTempDirectory("render");
+        Path entropy = directory.resolve("entropy.bin");
+        byte[] bytes = new byte[(int) DRAWS * Integer.BYTES];
+        new Random(7).nextBytes(bytes);
+        Files.write(entropy, bytes);
+
+        RenderJob job = new RenderJob(directory, WORKERS, DRAWS, 0, entropy);
+        for (int worker = 0; worker < WORKERS; worker++) {
+            assertTrue(RenderWorker.run(job, worker, Long.MAX_VALUE));
+        }
+        assertEquals(DRAWS, job.sliceEnd(WORKERS - 1));
+        long[] density = DistributedRenderer.merge(job);
+        assertEquals(DRAWS - (long) BURN_IN * WORKERS, sum(density));
+
+        // Точки игры хаоса не попадают в центральный треугольник
+        int center = DotController.SIZE / 2;
+        assertEquals(0, density[(center + 150) * DensityShard.WIDTH + center]);
+    }
+
+    @Test
+    public void testShardOfOtherJobIsIgnored() throws IOException {
+        Path directory = Files.createTempDirectory("render");
+        RenderJob first = new RenderJob(directory, WORKERS, DRAWS, 1, null);
+        RenderJob second = new RenderJob(directory, WORKERS, DRAWS, 2, null);
+
+        assertFalse(RenderWorker.run(first, 0, 1_000));
+        DensityShard stale = DensityShard.load(second.shardPath(0), second.id(), second.sliceStart(0), second.sliceEnd(0));
+        assertNull(stale);
+
+        assertTrue(RenderWorker.run(second, 0, Long.MAX_VALUE));
+        DensityShard shard = DensityShard.load(second.shardPath(0), second.id(), second.sliceStart(0), second.sliceEnd(0));
+        assertEquals(second.sliceEnd(0) - second.sliceStart(0) - BURN_IN, sum(shard.counts));
+    }
+
+    @Test
+    public void testReplacedEntropyFileInvalidatesShards() throws IOException {
+        Path directory = Files.createTempDirectory("render");
+        Path entropy = directory.resolve("entropy.bin");
+        byte[] bytes = new byte[20_000 * Integer.BYTES];
+        new Random(7).nextBytes(bytes);
+        Files.write(entropy, bytes);
+        RenderJob job = new RenderJob(directory, 1, 20_000, 0, entropy);
+        assertTrue(RenderWorker.run(job, 0, Long.MAX_VALUE));
+        assertTrue(DistributedRenderer.isShardComplete(job, 0));
+
+        // Другие данные того же размера и с тем же временем изменения
+        FileTime modified = Files.getLastModifiedTime(entropy);
+        new Random(8).nextBytes(bytes);
+        Files.write(entropy, bytes);
+        Files.setLastModifiedTime(entropy, modified);
+
+        assertFalse(DistributedRenderer.isShardComplete(job, 0));
+        assertThrows(IOException.class, () -> DistributedRenderer.merge(job));
+    }
+
+    @Test
+    public void testCoordinatorRerunsWorkersOfOtherJob() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("render");
+        RenderJob previous = new RenderJob(directory, 2, 20_000, 1, null);
+        RenderJob current = new RenderJob(directory, 2, 20_000, 2, null);
+        for (int worker = 0; worker < previous.workers(); worker++) {
+            assertTrue(RenderWorker.run(previous, worker, Long.MAX_VALUE));
+        }
+
+        // Завершенные срезы задания с другим зерном не засчитываются ни при пропуске, ни при сведении
+        assertTrue(DistributedRenderer.isShardComplete(previous, 0));
+        assertFalse(DistributedRenderer.isShardComplete(current, 0));
+        assertThrows(IOException.class, () -> DistributedRenderer.merge(current));
+
+        DistributedRenderer.render(current);
+
+        RenderJob reference = new RenderJob(Files.createTempDirectory("render"), 2, 20_000, 2, null);
+        for (int worker = 0; worker < reference.workers(); worker++) {
+            assertTrue(RenderWorker.run(reference, worker, Long.MAX_VALUE));
+            assertTrue(Files.exists(current.logPath(worker)), "У каждого рабочего процесса свой файл лога");
+        }
+        assertArrayEquals(DistributedRenderer.merge(reference), DistributedRenderer.merge(current));
+        assertThrows(IOException.class, () -> DistributedRenderer.merge(previous));
+    }
+
+    @Test
+    public void testWorkerStopsWhenDimensionConverges() throws IOException {
+        Path directory = Files.createTempDirectory("render");
+        RenderJob converging = new RenderJob(directory, 1, DRAWS * 10, 5, null, 1e-3);
+        RenderJob full = new RenderJob(directory, 1, DRAWS * 10, 5, null);
+
+        assertTrue(RenderWorker.run(converging, 0, Long.MAX_VALUE));
+        DensityShard shard = DensityShard.load(converging.shardPath(0), converging.id(), 0, converging.draws());
+        assertTrue(shard.converged);
+        assertTrue(shard.nextIndex < converging.draws(), "Срез должен остановиться досрочно: " + shard.nextIndex);
+        assertTrue(DistributedRenderer.isShardComplete(converging, 0));
+        assertEquals(shard.nextIndex - BURN_IN, sum(DistributedRenderer.merge(converging)));
+
+        // Срез, остановленный по сходимости, не засчитывается заданию без допуска
+        assertFalse(DistributedRenderer.isShardComplete(full, 0));
+        assertTrue(converging.toArguments().contains("--stop-when-converged=0.001"));
+        assertEquals(converging, RenderJob.parse(RenderJob.parseArguments(converging.toArguments().toArray(String[]::new))));
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int value : counts) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static long sum(long[] density) {
+        long total = 0;
+        for (long value : density) {
+            total += value;
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DistributionsTest {
+
+    @Test
+    public void testKolmogorovSurvival() {
+        // Критическое значение для уровня значимости 0.05
+        assertEquals(0.05, Distributions.kolmogorovSurvival(1.358), 1e-3);
+        assertEquals(1.0, Distributions.kolmogorovSurvival(0.0), 0.0);
+    }
+}
@@ -0,0 +1,128 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntropyBudgetTest {
+
+    /**
+     * Поставщик с конечным запасом байтов.
+     */
+    private static final class FiniteSupplier implements RandomNumberSupplier {
+        private long remaining;
+
+        FiniteSupplier(long remaining) {
+            this.remaining = remaining;
+        }
+
+        @Override
+        public synchronized int getNextRandomNumber() {
+            if (remaining == 0) {
+                throw new NoSuchElementException("Запас исчерпан");
+            }
+            remaining--;
+            return (int) (remaining & 0xFF);
+        }
+
+        @Override
+        public synchronized long getRemainingSupply() {
+            return remaining;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+
+    @Test
+    public void testRateLimitThrottlesConsumer() {
+        EntropyBudget budget = new EntropyBudget(new FiniteSupplier(Long.MAX_VALUE - 1));
+        EntropyConsumer limited = budget.register("limited", EntropyBudget.Priority.NORMAL, 8, 0);
+
+        limited.getNextRandomInteger();
+        limited.getNextRandomInteger();
+        assertThrows(EntropyThrottledException.class, limited::getNextRandomInteger);
+
+        EntropyBudget.ConsumerUsage usage = budget.getUsage().getFirst();
+        assertEquals(8, usage.grantedBytes());
+        assertEquals(1, usage.throttledRequests());
+    }
+
+    @Test
+    public void testFailedDrawIsNotCountedAsGranted() {
+        // Поставщик сообщает о запасе, но не может его выдать
+        RandomNumberSupplier failing = new RandomNumberSupplier() {
+            @Override
+            public int getNextRandomNumber() {
+                throw new NoSuchElementException("Источник недоступен");
+            }
+
+            @Override
+            public long getRemainingSupply() {
+                return 100;
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+        EntropyBudget budget = new EntropyBudget(failing);
+        EntropyConsumer consumer = budget.register("consumer", EntropyBudget.Priority.NORMAL, 0, 0);
+
+        assertThrows(NoSuchElementException.class, consumer::getNextRandomInteger);
+        EntropyBudget.ConsumerUsage usage = budget.getUsage().getFirst();
+        assertEquals(0, usage.grantedBytes());
+        assertEquals(1, usage.exhaustedRequests());
+    }
+
+    @Test
+    public void testReserveProtectsCriticalConsumer() {
+        FiniteSupplier supplier = new FiniteSupplier(1000);
+        EntropyBudget budget = new EntropyBudget(supplier, 400);
+        EntropyConsumer critical = budget.register("critical", EntropyBudget.Priority.CRITICAL, 0, 0.5);
+        EntropyConsumer background = budget.register("background", EntropyBudget.Priority.BACKGROUND, 0, 0);
+
+        // Фоновый потребитель расходует запас, пока не упрется в резерв критичного (200 байт)
+        int backgroundBytes = 0;
+        try {
+            while (true) {
+                background.getNextRandomNumber();
+                backgroundBytes++;
+            }
+        } catch (EntropyThrottledException expected) {
+            // Резерв достигнут
+        }
+        assertEquals(800, backgroundBytes);
+
+        // Критичный потребитель получает весь оставшийся запас
+        for (int i = 0; i < 200; i++) {
+            critical.getNextRandomNumber();
+        }
+        NoSuchElementException exhausted = assertThrows(NoSuchElementException.class, critical::getNextRandomNumber);
+        assertTrue(!(exhausted instanceof EntropyThrottledException), "Исчерпание не должно выглядеть как ограничение");
+
+        List<EntropyBudget.ConsumerUsage> usage = budget.getUsage();
+        assertEquals(200, usage.get(0).grantedBytes());
+        assertEquals(1, usage.get(0).exhaustedRequests());
+        assertEquals(800, usage.get(1).grantedBytes());
+        assertEquals(1, usage.get(1).throttledRequests());
+    }
+
+    @Test
+    public void testReservesCannotExceedWholeThreshold() {
+        EntropyBudget budget = new EntropyBudget(new FiniteSupplier(100));
+        budget.register("first", EntropyBudget.Priority.CRITICAL, 0, 0.7);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> budget.register("second", EntropyBudget.Priority.NORMAL, 0, 0.5));
+        assertThrows(IllegalArgumentException.class,
+                () -> budget.register("first", EntropyBudget.Priority.NORMAL, 0, 0));
+    }
+
+}
@@ -2,52 +2,94 @@ package org.ThreeDotsSierpinski;
 
 import org.junit.jupiter.api.Test;
 
-import java.util.Arrays;
-import java.util.logging.Logger;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RandomNumberProviderTest {
 
-    private static final Logger LOGGER = Logger.getLogger(RandomNumberProviderTest.class.getName());
-
     @Test
     public void testRandomNumberQuality() {
-        RandomNumberProvider randomNumberProvider = new RandomNumberProvider();
+        Random random = new Random(7);
+        RandomNumberProvider randomNumberProvider = new RandomNumberProvider(length -> {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            return bytes;
+        }, 10);
         int sampleSize = 1000;
         double alpha = 0.05; // Уровень значимости (5%)
 
-        // Генерация выборки случайных чисел в диапазоне [0, 1)
-        double[] sample = IntStream.range(0, sampleSize)
-                .mapToDouble(i -> {
-                    int randomValue = randomNumberProvider.getNextRandomInteger();
-                    double normalizedValue = (randomValue - (double) Integer.MIN_VALUE) / (Integer.MAX_VALUE - (double) Integer.MIN_VALUE);
-                    LOGGER.info("Generated normalized value: " + normalizedValue); // Логгирование значения
-                    return normalizedValue;
-                })
-                .toArray();
-
-        // Проверка качества случайных чисел с помощью теста Колмогорова-Смирнова
-        boolean isUniform = performKolmogorovSmirnovTest(sample, alpha);
-
-        System.out.println("Result of Kolmogorov-Smirnov Test: " + isUniform);
-        assertTrue(isUniform, "Случайные числа не соответствуют ожидаемому равномерному распределению на уровне значимости " + alpha);
+        try {
+            // Генерация выборки случайных чисел во всем диапазоне int
+            int[] sample = IntStream.range(0, sampleSize)
+                    .map(i -> randomNumberProvider.getNextRandomInteger())
+                    .toArray();
+
+            // Проверка качества случайных чисел с помощью теста Колмогорова-Смирнова
+            StatisticalReport report = new StatisticalBattery().analyze(sample, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            assertTrue(report.ksPValue() >= alpha,
+                    "Случайные числа не соответствуют ожидаемому равномерному распределению на уровне значимости " + alpha
+                            + ": " + report);
+        } finally {
+            randomNumberProvider.shutdown();
+        }
     }
 
-    private boolean performKolmogorovSmirnovTest(double[] sample, double alpha) {
-        Arrays.sort(sample);
-        int n = sample.length;
-        double maxDeviation = 0.0;
+    @Test
+    public void testAwaitSupplyWaitsForFirstBatchWithoutConsuming() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RandomNumberProvider provider = new RandomNumberProvider(length -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return new byte[length];
+        }, 1);
+        try {
+            assertFalse(provider.awaitSupply(50, TimeUnit.MILLISECONDS));
+            release.countDown();
+            assertTrue(provider.awaitSupply(5, TimeUnit.SECONDS));
+            assertEquals(1024, provider.getRemainingSupply());
+        } finally {
+            provider.shutdown();
+        }
+    }
 
-        for (int i = 0; i < n; i++) {
-            double empiricalCDF = (double) (i + 1) / n;
-            double theoreticalCDF = sample[i];
-            double deviation = Math.abs(empiricalCDF - theoreticalCDF);
-            maxDeviation = Math.max(maxDeviation, deviation);
+    @Test
+    public void testAwaitSupplyReturnsWhenLoadingFails() throws InterruptedException {
+        RandomNumberProvider provider = new RandomNumberProvider(length -> {
+            throw new IOException("Источник недоступен");
+        }, 1);
+        try {
+            assertFalse(provider.awaitSupply(5, TimeUnit.SECONDS));
+        } finally {
+            provider.shutdown();
         }
+    }
 
-        double criticalValue = Math.sqrt(-0.5 * Math.log(alpha / 2)) / Math.sqrt(n);
-        LOGGER.info("Max deviation: " + maxDeviation + ", Critical value: " + criticalValue);
-        return maxDeviation <= criticalValue;
+    @Test
+    public void testConfigSetsBatchSizeAndRetries() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        RandomNumberProvider provider = new RandomNumberProvider(length -> {
+            if (attempts.incrementAndGet() < 5) {
+                throw new IOException("Временный сбой");
+            }
+            return new byte[length];
+        }, 1, new RandomNumberProvider.Config(64, 16, 5));
+        try {
+            assertTrue(provider.awaitSupply(5, TimeUnit.SECONDS));
+            assertEquals(5, attempts.get());
+            assertEquals(16, provider.getRemainingSupply());
+        } finally {
+            provider.shutdown();
+        }
     }
 }
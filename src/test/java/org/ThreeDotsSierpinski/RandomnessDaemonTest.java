@@ -0,0 +1,214 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RandomnessDaemonTest {
+
+    // Источник, повторяющий последовательность 0, 1, ..., 255
+    private static final RandomBytesSource COUNTING_SOURCE = length -> {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    };
+
+    @Test
+    public void testClientDrawsOverLoopback() throws IOException {
+        RandomNumberProvider provider = new RandomNumberProvider(COUNTING_SOURCE, Integer.MAX_VALUE);
+        try (RandomnessDaemon daemon = new RandomnessDaemon(provider,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            RandomnessClient client = new RandomnessClient(daemon.getLocalAddress(), 512);
+            try {
+                for (int i = 0; i < 10_000; i++) {
+                    int value = client.getNextRandomNumber();
+                    assertTrue(value >= 0 && value <= 255);
+                }
+                long value = client.getNextRandomNumberInRange(-10, 10);
+                assertTrue(value >= -10 && value <= 10);
+            } finally {
+                client.shutdown();
+            }
+            assertTrue(daemon.getBytesServed() >= 10_004);
+            assertEquals(1, daemon.getConnectionCount());
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void testClientsShareOnePoolWithoutReuse() throws IOException {
+        // Четыре запроса по 1024 байта: каждое значение встречается в пуле ровно 16 раз
+        RandomNumberProvider provider = new RandomNumberProvider(COUNTING_SOURCE, 4);
+        Path socket = Files.createTempDirectory("qrng").resolve("daemon.sock");
+        try (RandomnessDaemon daemon = new RandomnessDaemon(provider, UnixDomainSocketAddress.of(socket))) {
+            RandomnessClient first = new RandomnessClient(daemon.getLocalAddress(), 256);
+            RandomnessClient second = new RandomnessClient(daemon.getLocalAddress(), 100);
+            int[] histogram = new int[256];
+            boolean firstExhausted = false;
+            boolean secondExhausted = false;
+            while (!firstExhausted || !secondExhausted) {
+                if (!firstExhausted) {
+                    try {
+                        histogram[first.getNextRandomNumber()]++;
+                    } catch (NoSuchElementException e) {
+                        firstExhausted = true;
+                    }
+                }
+                if (!secondExhausted) {
+                    try {
+                        histogram[second.getNextRandomNumber()]++;
+                    } catch (NoSuchElementException e) {
+                        secondExhausted = true;
+                    }
+                }
+            }
+            for (int count : histogram) {
+                assertEquals(16, count, "Каждый байт пула должен быть выдан ровно один раз");
+            }
+            assertEquals(4096, daemon.getBytesServed());
+            assertThrows(NoSuchElementException.class, first::getNextRandomNumber);
+            first.shutdown();
+            second.shutdown();
+        } finally {
+            provider.shutdown();
+        }
+        assertTrue(Files.notExists(socket), "Файл сокета должен удаляться при остановке");
+    }
+
+
+    @Test
+    public void testClientReportsRemainingSupply() throws IOException, InterruptedException {
+        // Одна порция провайдера: запас убывает только за счет выдачи
+        RandomNumberProvider provider = new RandomNumberProvider(COUNTING_SOURCE, 1);
+        assertTrue(provider.awaitSupply(5, TimeUnit.SECONDS));
+        try (RandomnessDaemon daemon = new RandomnessDaemon(provider,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            RandomnessClient client = new RandomnessClient(daemon.getLocalAddress(), 256);
+            try {
+                assertEquals(1024, client.getRemainingSupply());
+                client.getNextRandomNumber();
+                assertEquals(1023, client.getRemainingSupply());
+
+                EntropyBudget budget = new EntropyBudget(client, 2048);
+                EntropyConsumer background = budget.register("background", EntropyBudget.Priority.BACKGROUND, 0, 0);
+                budget.register("critical", EntropyBudget.Priority.CRITICAL, 0, 0.25);
+                int granted = 0;
+                try {
+                    while (true) {
+                        background.getNextRandomNumber();
+                        granted++;
+                    }
+                } catch (EntropyThrottledException expected) {
+                    // Резерв критичного потребителя (512 байт) соблюдается и через сервис
+                }
+                assertEquals(1023 - 512, granted);
+                assertEquals(granted, budget.getUsage().getFirst().grantedBytes());
+            } finally {
+                client.shutdown();
+            }
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void testClientAwaitSupplyHonoursTimeout() throws IOException, InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RandomNumberProvider provider = new RandomNumberProvider(length -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return COUNTING_SOURCE.fetch(length);
+        }, 1);
+        try (RandomnessDaemon daemon = new RandomnessDaemon(provider,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            RandomnessClient client = new RandomnessClient(daemon.getLocalAddress(), 256);
+            try {
+                // Сервис ждет источник, но ожидание клиента ограничено таймаутом
+                long started = System.nanoTime();
+                assertFalse(client.awaitSupply(100, TimeUnit.MILLISECONDS));
+                assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2));
+
+                // Запас читается без ожидания запроса, который еще выполняется
+                assertEquals(1024, client.getRemainingSupply());
+                assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2));
+
+                // Запрос продолжился в фоне и получает порцию после появления данных
+                release.countDown();
+                assertTrue(client.awaitSupply(10, TimeUnit.SECONDS));
+                assertEquals(0, client.getNextRandomNumber());
+            } finally {
+                client.shutdown();
+            }
+        } finally {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void testClientReconnectsAfterMalformedFrame() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 2, InetAddress.getLoopbackAddress())) {
+            Thread fakeDaemon = Thread.ofPlatform().daemon().start(() -> {
+                try (Socket broken = server.accept()) {
+                    DataInputStream in = new DataInputStream(broken.getInputStream());
+                    DataOutputStream out = new DataOutputStream(broken.getOutputStream());
+                    in.readInt();
+                    out.writeLong(100);
+                    // Длина больше запрошенной порции; остаток кадра остается в канале
+                    in.readInt();
+                    out.writeInt(1_000_000);
+                    out.write(new byte[16]);
+                    out.flush();
+                    try (Socket healthy = server.accept()) {
+                        in = new DataInputStream(healthy.getInputStream());
+                        out = new DataOutputStream(healthy.getOutputStream());
+                        in.readInt();
+                        out.writeInt(4);
+                        out.write(new byte[]{1, 2, 3, 4});
+                        in.readInt();
+                        out.writeLong(96);
+                        out.flush();
+                        in.read(); // Ждет закрытия клиентом
+                    }
+                } catch (IOException ignored) {
+                    // Клиент закрыл соединение
+                }
+            });
+            RandomnessClient client = new RandomnessClient(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    server.getLocalPort()), 256);
+            try {
+                assertEquals(100, client.getRemainingSupply());
+                assertThrows(NoSuchElementException.class, client::getNextRandomNumber);
+                // Следующий запрос идет по новому соединению, а не читает хвост испорченного кадра
+                assertEquals(1, client.getNextRandomNumber());
+                assertEquals(96 + 3, client.getRemainingSupply());
+            } finally {
+                client.shutdown();
+            }
+            fakeDaemon.join(5_000);
+        }
+    }
+
+}
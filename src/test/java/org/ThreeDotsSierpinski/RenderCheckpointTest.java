@@ -0,0 +1,144 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RenderCheckpointTest {
+
+    private static final int TILE_PIXELS = DotController.TILE_SIZE * DotController.TILE_SIZE;
+
+    private static final RandomNumberSupplier CONSTANT_SUPPLIER = new RandomNumberSupplier() {
+        @Override
+        public int getNextRandomNumber() {
+            return 0;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    };
+
+    @Test
+    public void testRoundTripRestoresPixelsAndCounters() throws IOException {
+        Path path = Files.createTempDirectory("checkpoint").resolve("render.snapshot");
+        RenderState initial = new RenderState(new Point(123, 456), 789, -42L,
+                new int[]{1, 2, 3}, new int[]{910, 20, 5, -9}, null, null);
+        DotController original = new DotController(CONSTANT_SUPPLIER, initial);
+        draw(original, Color.BLACK, new Point(0, 0), new Point(29, 29), new Point(450, 451), new Point(898, 898));
+        draw(original, Color.RED, new Point(600, 700));
+        BoxCountingEstimator estimator = original.getDimensionEstimator();
+        for (int i = 0; i < 5_000; i++) {
+            estimator.record(i % 900, (i * 7) % 900);
+        }
+
+        new RenderCheckpoint(path).shutdown(original);
+        RenderState restored = new RenderCheckpoint(path).restore();
+
+        assertNotNull(restored);
+        assertEquals(new Point(123, 456), restored.currentPoint());
+        assertEquals(789, restored.currentRandomValueIndex());
+        assertEquals(Long.valueOf(-42), restored.currentRandomValue());
+        assertArrayEquals(new int[]{1, 2, 3}, restored.numbers());
+        assertArrayEquals(new int[]{910, 20, 5, -9}, restored.fallenPositions());
+
+        // Оценка размерности продолжается с сохраненного состояния, а не пересчитывается по пикселям
+        DotController resumed = new DotController(CONSTANT_SUPPLIER, restored);
+        BoxCountingEstimator restoredEstimator = resumed.getDimensionEstimator();
+        assertEquals(estimator.getPointCount(), restoredEstimator.getPointCount());
+        assertEquals(estimator.getDimension(), restoredEstimator.getDimension(), 0.0);
+        assertEquals(estimator.getRateOfChange(), restoredEstimator.getRateOfChange(), 0.0);
+        resumed.shutdown();
+
+        // Построчный растр совпадает с изображением, а красная точка восстанавливается черной
+        draw(original, Color.BLACK, new Point(600, 700));
+        assertTilesEqual(original, new DotController(CONSTANT_SUPPLIER, restored));
+        original.shutdown();
+    }
+
+    @Test
+    public void testIncompleteSlotFallsBackToPreviousCheckpoint() throws IOException {
+        Path path = Files.createTempDirectory("checkpoint").resolve("render.snapshot");
+        DotController first = new DotController(CONSTANT_SUPPLIER);
+        draw(first, Color.BLACK, new Point(100, 100));
+        new RenderCheckpoint(path).shutdown(first);
+
+        // Вторая контрольная точка пишется в другой слот поверх восстановленного состояния
+        RenderCheckpoint checkpoint = new RenderCheckpoint(path);
+        DotController second = new DotController(CONSTANT_SUPPLIER, checkpoint.restore());
+        draw(second, Color.BLACK, new Point(300, 300));
+        checkpoint.shutdown(second);
+        assertTilesEqual(second, new DotController(CONSTANT_SUPPLIER, new RenderCheckpoint(path).restore()));
+
+        // Сбой во время записи второго слота: восстанавливается первая контрольная точка
+        long secondSequence = readSequence(path, 1);
+        assertEquals(4, secondSequence);
+        writeSequence(path, 1, secondSequence + 1);
+        assertTilesEqual(first, new DotController(CONSTANT_SUPPLIER, new RenderCheckpoint(path).restore()));
+
+        // Незавершены оба слота: запуск с нуля
+        writeSequence(path, 0, readSequence(path, 0) + 1);
+        assertNull(new RenderCheckpoint(path).restore());
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void testCorruptTrailerCountsAreRejected() throws IOException {
+        Path path = Files.createTempDirectory("checkpoint").resolve("render.snapshot");
+        DotController controller = new DotController(CONSTANT_SUPPLIER);
+        new RenderCheckpoint(path).shutdown(controller);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer count = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.write(count.putInt(0, Integer.MAX_VALUE), RenderCheckpoint.OFFSET_NUMBERS_COUNT);
+        }
+        assertNull(new RenderCheckpoint(path).restore());
+        controller.shutdown();
+    }
+
+    private static void draw(DotController controller, Color color, Point... points) {
+        controller.drawDots(List.of(points).stream().map(Dot::new).toList(), color);
+    }
+
+    private static void assertTilesEqual(DotController expected, DotController actual) {
+        int[] expectedTile = new int[TILE_PIXELS];
+        int[] actualTile = new int[TILE_PIXELS];
+        for (int tile = 0; tile < DotController.TILE_COUNT; tile++) {
+            expected.readTile(tile, expectedTile);
+            actual.readTile(tile, actualTile);
+            assertArrayEquals(expectedTile, actualTile, "Фрагмент " + tile);
+        }
+        actual.shutdown();
+    }
+
+    private static long readSequence(Path path, int slot) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer sequence = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(sequence, slot * RenderCheckpoint.SLOT_SIZE + RenderCheckpoint.OFFSET_SEQUENCE);
+            return sequence.getLong(0);
+        }
+    }
+
+    private static void writeSequence(Path path, int slot, long value) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer sequence = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, value);
+            channel.write(sequence, slot * RenderCheckpoint.SLOT_SIZE + RenderCheckpoint.OFFSET_SEQUENCE);
+        }
+    }
+
+}
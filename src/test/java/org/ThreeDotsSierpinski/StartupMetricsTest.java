@@ -0,0 +1,51 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StartupMetricsTest {
+
+    @Test
+    public void testPhasesAreMeasuredFromMainEntry() throws InterruptedException {
+        StartupMetrics metrics = new StartupMetrics(System.nanoTime(), 200, 0);
+        assertEquals(-1, metrics.getTimeToFirstFrameMillis());
+        assertEquals(-1, metrics.getTimeToFirstDotMillis());
+
+        Thread.sleep(20);
+        metrics.end(StartupMetrics.Phase.FRAME);
+        metrics.begin(StartupMetrics.Phase.FIRST_DOT);
+        Thread.sleep(20);
+        metrics.end(StartupMetrics.Phase.FIRST_DOT);
+        metrics.end(StartupMetrics.Phase.FIRST_DOT); // Повторная отметка не изменяет время
+
+        long frame = metrics.getPhaseEndMillis(StartupMetrics.Phase.FRAME);
+        long firstDot = metrics.getPhaseEndMillis(StartupMetrics.Phase.FIRST_DOT);
+        assertTrue(frame >= 20 && firstDot >= frame + 20, frame + " / " + firstDot);
+        assertEquals(200 + frame, metrics.getTimeToFirstFrameMillis());
+        assertEquals(200 + firstDot, metrics.getTimeToFirstDotMillis());
+
+        String[] phases = metrics.getPhaseTimes();
+        assertEquals(StartupMetrics.Phase.values().length, phases.length);
+        assertTrue(phases[StartupMetrics.Phase.FRAME.ordinal()].startsWith("окно: 0–"), phases[StartupMetrics.Phase.FRAME.ordinal()]);
+        assertEquals("логгер: не начата", phases[StartupMetrics.Phase.LOGGER.ordinal()]);
+    }
+
+    @Test
+    public void testStartupBudget() {
+        StartupMetrics unlimited = new StartupMetrics(System.nanoTime(), 10_000, 0);
+        assertTrue(unlimited.isWithinBudget());
+
+        StartupMetrics exceeded = new StartupMetrics(System.nanoTime(), 10_000, 5_000);
+        assertFalse(exceeded.isWithinBudget()); // Первая точка еще не отрисована
+        exceeded.end(StartupMetrics.Phase.FIRST_DOT);
+        assertFalse(exceeded.isWithinBudget());
+
+        StartupMetrics met = new StartupMetrics(System.nanoTime(), 100, 5_000);
+        met.end(StartupMetrics.Phase.FIRST_DOT);
+        assertTrue(met.isWithinBudget());
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatisticalBatteryTest {
+
+    private static final double ALPHA = 0.001;
+
+    @Test
+    public void testUniformBytesPass() {
+        byte[] data = new byte[4_000_000];
+        new Random(7).nextBytes(data);
+
+        StatisticalReport report = new StatisticalBattery().analyze(data);
+
+        assertEquals(data.length, report.sampleSize());
+        assertTrue(report.passed(ALPHA), "Равномерные байты не должны отвергаться: " + report);
+    }
+
+    @Test
+    public void testBiasedBitsFail() {
+        byte[] data = new byte[1_000_000];
+        Random random = new Random(7);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (random.nextInt(256) | 0x01); // Младший бит всегда равен единице
+        }
+
+        StatisticalReport report = new StatisticalBattery().analyze(data);
+
+        assertTrue(report.monobitPValue() < ALPHA, "Смещение бит должно обнаруживаться: " + report);
+        assertTrue(report.chiSquarePValue() < ALPHA, "Пропуск четных значений должен обнаруживаться: " + report);
+        assertFalse(report.passed(ALPHA));
+    }
+
+    @Test
+    public void testSerialCorrelationDetected() {
+        int[] sample = new int[1_000_000];
+        Random random = new Random(7);
+        int previous = 0;
+        for (int i = 0; i < sample.length; i++) {
+            // Случайное блуждание: каждое значение близко к предыдущему
+            previous = (previous + random.nextInt(10)) % 1000;
+            sample[i] = previous;
+        }
+
+        StatisticalReport report = new StatisticalBattery().analyze(sample, 0, 999);
+
+        assertTrue(report.serialCorrelation() > 0.9, report.toString());
+        assertTrue(report.serialPValue() < ALPHA, report.toString());
+    }
+
+    @Test
+    public void testIntSampleIsNotModified() {
+        int[] sample = new int[10_000];
+        Random random = new Random(7);
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = random.nextInt(200000000) - 99999999;
+        }
+        int[] copy = sample.clone();
+
+        StatisticalReport report = new StatisticalBattery().analyze(sample, -99999999, 100000000);
+
+        assertArrayEquals(copy, sample);
+        assertTrue(report.passed(ALPHA), report.toString());
+    }
+
+    @Test
+    public void testKolmogorovSmirnovUsesGivenRange() {
+        int[] sample = new int[10_000];
+        Random random = new Random(7);
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = random.nextInt(1000);
+        }
+        int[] copy = sample.clone();
+
+        assertTrue(KolmogorovSmirnovTest.test(sample, 0, 999, ALPHA));
+        // Та же выборка занимает только половину более широкого диапазона
+        assertFalse(KolmogorovSmirnovTest.test(sample, 0, 1999, ALPHA));
+        assertArrayEquals(copy, sample);
+    }
+
+    @Test
+    public void testMappedFileMatchesInMemory() throws IOException {
+        byte[] data = new byte[3_000_001];
+        new Random(11).nextBytes(data);
+        Path file = Files.createTempFile("qrng", ".bin");
+        try {
+            Files.write(file, data);
+            StatisticalBattery battery = new StatisticalBattery();
+
+            StatisticalReport fromFile = battery.analyze(file);
+            StatisticalReport inMemory = battery.analyze(data);
+
+            assertEquals(inMemory, fromFile);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testExactKolmogorovSmirnovPValue() {
+        // Табличное критическое значение для n = 10 при уровне значимости 0.05
+        assertEquals(0.05, Distributions.kolmogorovSmirnovPValue(0.409, 10), 0.002);
+        // Для больших выборок используется асимптотика
+        assertEquals(0.05, Distributions.kolmogorovSmirnovPValue(1.358 / Math.sqrt(1_000_000), 1_000_000), 0.002);
+    }
+}
@@ -0,0 +1,137 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ToeplitzExtractorTest {
+
+    @Test
+    public void testMatchesBitwiseToeplitzProduct() {
+        int n = 128;
+        int m = 64;
+        byte[] seed = seed(7, n, m);
+        ToeplitzExtractor extractor = new ToeplitzExtractor(seed, n, m);
+        byte[] input = new byte[n / 8];
+        new Random(1).nextBytes(input);
+
+        // Эталон: диагонали s[d] берутся из битов зерна, произведение считается по битам
+        byte[] expected = new byte[m / 8];
+        for (int i = 0; i < m; i++) {
+            int bit = 0;
+            for (int j = 0; j < n; j++) {
+                int diagonal = i - j + n - 1;
+                int matrixBit = (seed[diagonal / 8] >>> (diagonal % 8)) & 1;
+                int inputBit = (input[j / 8] >>> (j % 8)) & 1;
+                bit ^= matrixBit & inputBit;
+            }
+            expected[i / 8] |= (byte) (bit << (i % 8));
+        }
+
+        assertArrayEquals(expected, extractor.extract(input));
+    }
+
+    @Test
+    public void testParallelExtractionMatchesBlockwise() {
+        ToeplitzExtractor extractor = new ToeplitzExtractor(seed(11, 1024, 512), 1024, 512);
+        byte[] input = new byte[extractor.getInputBlockBytes() * 4096];
+        new Random(2).nextBytes(input);
+
+        byte[] parallel = extractor.extract(input);
+        assertEquals(input.length / 2, parallel.length);
+
+        int in = extractor.getInputBlockBytes();
+        int out = extractor.getOutputBlockBytes();
+        for (int block = 0; block < 4096; block += 511) {
+            byte[] single = extractor.extract(Arrays.copyOfRange(input, block * in, (block + 1) * in));
+            assertArrayEquals(single, Arrays.copyOfRange(parallel, block * out, (block + 1) * out));
+        }
+    }
+
+    @Test
+    public void testBiasedInputProducesBalancedOutput() {
+        // Каждый входной бит равен 1 с вероятностью 3/4: ~0.415 бита минимальной энтропии на бит
+        ToeplitzExtractor extractor = new ToeplitzExtractor(seed(3, 1024, 256), 1024, 256);
+        Random random = new Random(3);
+        byte[] input = new byte[extractor.getInputBlockBytes() * 8192];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (byte) (random.nextInt(256) | random.nextInt(256));
+        }
+
+        StatisticalReport inputReport = new StatisticalBattery().analyze(input);
+        StatisticalReport outputReport = new StatisticalBattery().analyze(extractor.extract(input));
+
+        assertTrue(inputReport.monobitPValue() < 1e-6, "Вход должен быть заметно смещен");
+        assertTrue(outputReport.passed(0.001), "Выход экстрактора должен проходить тесты: " + outputReport);
+    }
+
+    @Test
+    public void testInvalidConfigurationRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ToeplitzExtractor(seed(1, 100, 64), 100, 64));
+        assertThrows(IllegalArgumentException.class, () -> new ToeplitzExtractor(seed(1, 64, 128), 64, 128));
+        assertThrows(IllegalArgumentException.class, () -> new ToeplitzExtractor(new byte[8], 128, 64));
+        assertThrows(IllegalArgumentException.class, () -> new ToeplitzExtractor(seed(1, 128, 64), 128, 64).extract(new byte[10]));
+    }
+
+    @Test
+    public void testMixerSurvivesDegradedQuantumSource() throws IOException {
+        RandomBytesSource stuck = length -> new byte[length]; // Квантовый источник выдает только нули
+        MixingRandomBytesSource mixer = new MixingRandomBytesSource(stuck, new ToeplitzExtractor(seed(5, 1024, 512), 1024, 512),
+                new SecureRandom(), new JitterEntropySource());
+
+        byte[] output = new byte[64 * 1000];
+        for (int i = 0; i < 64; i++) {
+            byte[] chunk = mixer.fetch(1000);
+            assertEquals(1000, chunk.length);
+            System.arraycopy(chunk, 0, output, i * 1000, chunk.length);
+        }
+        assertTrue(new StatisticalBattery().analyze(output).passed(0.001), "Смешанный поток должен оставаться равномерным");
+    }
+
+    @Test
+    public void testMixerSurvivesDegradedLocalSources() throws IOException {
+        // Локальные источники выдают только нули, равномерность обеспечивает квантовый поток
+        SecureRandom stuckRandom = new SecureRandom() {
+            @Override
+            public void setSeed(byte[] seed) {
+            }
+
+            @Override
+            public void nextBytes(byte[] bytes) {
+                Arrays.fill(bytes, (byte) 0);
+            }
+        };
+        RandomBytesSource stuckJitter = length -> new byte[length];
+        Random quantum = new Random(6);
+        RandomBytesSource quantumSource = length -> {
+            byte[] bytes = new byte[length];
+            quantum.nextBytes(bytes);
+            return bytes;
+        };
+        MixingRandomBytesSource mixer = new MixingRandomBytesSource(quantumSource,
+                new ToeplitzExtractor(seed(8, 1024, 512), 1024, 512), stuckRandom, stuckJitter);
+
+        byte[] output = new byte[64 * 1000];
+        for (int i = 0; i < 64; i++) {
+            System.arraycopy(mixer.fetch(1000), 0, output, i * 1000, 1000);
+        }
+        assertTrue(new StatisticalBattery().analyze(output).passed(0.001),
+                "Смешанный поток должен оставаться равномерным при деградации локальных источников");
+    }
+
+    private static byte[] seed(long value, int inputBits, int outputBits) {
+        byte[] seed = new byte[ToeplitzExtractor.seedBytes(inputBits, outputBits)];
+        new SplittableRandom(value).nextBytes(seed);
+        return seed;
+    }
+
+}
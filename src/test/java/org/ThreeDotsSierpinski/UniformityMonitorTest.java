@@ -0,0 +1,59 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UniformityMonitorTest {
+
+    @Test
+    public void testUniformStreamPasses() {
+        UniformityMonitor monitor = new UniformityMonitor(4096);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            monitor.record(random.nextInt(256));
+        }
+
+        assertEquals(100_000, monitor.getSampleCount());
+        assertTrue(monitor.getCumulativePValue() > 0.01, "Равномерный поток не должен отвергаться");
+        assertTrue(monitor.getWindowPValue() > 0.01, "Равномерное окно не должно отвергаться");
+    }
+
+    @Test
+    public void testSlidingWindowDetectsBias() {
+        UniformityMonitor monitor = new UniformityMonitor(4096);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            monitor.record(random.nextInt(256));
+        }
+        // Смещенный хвост: только младшая половина значений
+        for (int i = 0; i < 4096; i++) {
+            monitor.record(random.nextInt(128));
+        }
+
+        assertEquals(0.5, monitor.getWindowStatistic(), 1e-9);
+        assertTrue(monitor.getWindowPValue() < 1e-6, "Смещенное окно должно отвергаться");
+        assertTrue(monitor.getCumulativeStatistic() < monitor.getWindowStatistic());
+    }
+
+    @Test
+    public void testSkewedStreamLowersCumulativePValue() {
+        UniformityMonitor monitor = new UniformityMonitor(4096);
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            monitor.record(random.nextInt(256));
+        }
+        double uniformPValue = monitor.getCumulativePValue();
+
+        // Каждый пятый байт берется из младшей четверти диапазона
+        for (int i = 0; i < 20_000; i++) {
+            monitor.record(i % 5 == 0 ? random.nextInt(64) : random.nextInt(256));
+        }
+
+        assertTrue(monitor.getCumulativePValue() < uniformPValue);
+        assertTrue(monitor.getCumulativePValue() < 1e-6, "Смещенный поток должен отвергаться: " + monitor.getCumulativePValue());
+    }
+}
@@ -0,0 +1,279 @@
+package org.ThreeDotsSierpinski;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Локальная замена QRNG API для тестов и нагрузочных прогонов без сети.
+ * <p>
+ * Сервер понимает тот же протокол, что и настоящий API: {@code GET ?length=N&format=HEX}
+ * возвращает {@code {"qrn": "...", "length": N}}, а ошибки — {@code {"error": "..."}}.
+ * Задержки ответа, доля ошибок, доля обрезанных ответов и ограничение частоты запросов
+ * задаются через {@link Behavior}. Каждый запрос обрабатывается в отдельном виртуальном потоке.
+ */
+public class QrngStandInServer implements AutoCloseable {
+    private static final Logger LOGGER = LoggerConfig.getLogger();
+
+    // Строковые константы
+    private static final String API_PATH = "/qrng_api/qrng";
+    private static final String LOG_STARTED = "Локальный QRNG-сервер запущен: ";
+    private static final String ERROR_INJECTED = "Injected failure";
+    private static final String ERROR_RATE_LIMITED = "Rate limit exceeded";
+    private static final String ERROR_BAD_REQUEST = "Invalid parameters";
+    private static final String CONTENT_TYPE = "application/json";
+
+    // Константы протокола
+    private static final int MAX_LENGTH = 1024 * 1024; // Максимальная длина запроса в байтах
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Распределение задержки ответа.
+     */
+    public enum LatencyDistribution {
+        /** Постоянная задержка, равная медиане. */
+        FIXED,
+        /** Равномерное распределение на [медиана - разброс, медиана + разброс]. */
+        UNIFORM,
+        /** Экспоненциальное распределение со средним, равным медиане. */
+        EXPONENTIAL,
+        /** Логнормальное распределение с заданной медианой; σ логарифма равна разбросу, деленному на медиану. */
+        LOG_NORMAL
+    }
+
+    /**
+     * Поведение сервера.
+     *
+     * @param latencyDistribution распределение задержки
+     * @param latencyMillis       медиана задержки (в миллисекундах)
+     * @param latencySpreadMillis разброс задержки (в миллисекундах)
+     * @param errorRate           доля ответов {@code {"error": ...}}
+     * @param truncationRate      доля ответов, обрезанных посередине тела
+     * @param requestsPerSecond   ограничение частоты запросов; 0 — без ограничения
+     */
+    public record Behavior(LatencyDistribution latencyDistribution,
+                           double latencyMillis,
+                           double latencySpreadMillis,
+                           double errorRate,
+                           double truncationRate,
+                           int requestsPerSecond) {
+
+        /**
+         * @return поведение без задержек, ошибок и ограничений.
+         */
+        public static Behavior ideal() {
+            return new Behavior(LatencyDistribution.FIXED, 0, 0, 0, 0, 0);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Behavior behavior;
+
+    // Счетчики для отчета нагрузочного прогона
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong truncatedCount = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    // Состояние ограничителя частоты (token bucket)
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    /**
+     * Запускает сервер на свободном порту loopback-интерфейса.
+     *
+     * @param behavior поведение сервера.
+     * @throws IOException если порт не удалось открыть.
+     */
+    public QrngStandInServer(Behavior behavior) throws IOException {
+        this(behavior, 0);
+    }
+
+    /**
+     * @param behavior поведение сервера.
+     * @param port     порт; 0 — выбрать свободный.
+     * @throws IOException если порт не удалось открыть.
+     */
+    public QrngStandInServer(Behavior behavior, int port) throws IOException {
+        this.behavior = behavior;
+        availableTokens = behavior.requestsPerSecond();
+        lastRefillNanos = System.nanoTime();
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(API_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        LOGGER.info(LOG_STARTED + getApiUrl());
+    }
+
+    /**
+     * @return адрес API для {@link QrngApiSource#QrngApiSource(String)}.
+     */
+    public String getApiUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + API_PATH;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requestCount.incrementAndGet();
+            sleep(sampleLatencyMillis());
+
+            if (!tryAcquire()) {
+                rateLimitedCount.incrementAndGet();
+                send(exchange, HTTP_TOO_MANY_REQUESTS, errorBody(ERROR_RATE_LIMITED), false);
+                return;
+            }
+            int length = parseLength(exchange.getRequestURI());
+            if (length <= 0) {
+                send(exchange, HTTP_BAD_REQUEST, errorBody(ERROR_BAD_REQUEST), false);
+                return;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < behavior.errorRate()) {
+                errorCount.incrementAndGet();
+                send(exchange, HTTP_OK, errorBody(ERROR_INJECTED), false);
+                return;
+            }
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String body = "{\"qrn\": \"" + HexFormat.of().withUpperCase().formatHex(bytes) + "\", \"length\": " + length + "}";
+            boolean truncate = random.nextDouble() < behavior.truncationRate();
+            if (truncate) {
+                truncatedCount.incrementAndGet();
+            } else {
+                bytesServed.addAndGet(length);
+            }
+            send(exchange, HTTP_OK, body, truncate);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body, boolean truncate) throws IOException {
+        byte[] payload = body.getBytes(StandardCharsets.US_ASCII);
+        int length = truncate ? payload.length / 2 : payload.length;
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload, 0, length);
+        }
+    }
+
+    private static String errorBody(String message) {
+        return "{\"error\": \"" + message + "\"}";
+    }
+
+    // Разбор параметра length; format поддерживается только HEX
+    private static int parseLength(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return -1;
+        }
+        int length = -1;
+        boolean hex = false;
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator < 0) {
+                continue;
+            }
+            String key = parameter.substring(0, separator);
+            String value = parameter.substring(separator + 1);
+            if (key.equals("length")) {
+                try {
+                    length = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            } else if (key.equals("format")) {
+                hex = value.equalsIgnoreCase("HEX");
+            }
+        }
+        return hex && length <= MAX_LENGTH ? length : -1;
+    }
+
+    private double sampleLatencyMillis() {
+        double median = behavior.latencyMillis();
+        double spread = behavior.latencySpreadMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double latency = switch (behavior.latencyDistribution()) {
+            case FIXED -> median;
+            case UNIFORM -> median - spread + 2 * spread * random.nextDouble();
+            case EXPONENTIAL -> -median * Math.log(1.0 - random.nextDouble());
+            case LOG_NORMAL -> median > 0 ? median * Math.exp(random.nextGaussian() * spread / median) : 0;
+        };
+        return Math.max(0, latency);
+    }
+
+    private static void sleep(double millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep((long) (millis * 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Ограничитель частоты: маркеры пополняются со скоростью requestsPerSecond, запас — не больше секунды
+    private synchronized boolean tryAcquire() {
+        int rate = behavior.requestsPerSecond();
+        if (rate <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        availableTokens = Math.min(rate, availableTokens + (now - lastRefillNanos) * rate / 1e9);
+        lastRefillNanos = now;
+        if (availableTokens >= 1) {
+            availableTokens--;
+            return true;
+        }
+        return false;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getTruncatedCount() {
+        return truncatedCount.get();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    public long getBytesServed() {
+        return bytesServed.get();
+    }
+
+    /**
+     * Останавливает сервер, не дожидаясь завершения текущих запросов.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
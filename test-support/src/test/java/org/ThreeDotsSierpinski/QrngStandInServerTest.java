@@ -0,0 +1,74 @@
+package org.ThreeDotsSierpinski;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QrngStandInServerTest {
+
+    @Test
+    public void testSourceFetchesFromStandIn() throws IOException {
+        try (QrngStandInServer server = new QrngStandInServer(QrngStandInServer.Behavior.ideal())) {
+            QrngApiSource source = new QrngApiSource(server.getApiUrl());
+            byte[] bytes = source.fetch(1024);
+
+            assertEquals(1024, bytes.length);
+            assertEquals(1, server.getRequestCount());
+            assertEquals(1024, server.getBytesServed());
+        }
+    }
+
+    @Test
+    public void testInjectedErrorsSurfaceAsIOException() throws IOException {
+        QrngStandInServer.Behavior failing = new QrngStandInServer.Behavior(
+                QrngStandInServer.LatencyDistribution.FIXED, 0, 0, 1.0, 0, 0);
+        try (QrngStandInServer server = new QrngStandInServer(failing)) {
+            QrngApiSource source = new QrngApiSource(server.getApiUrl());
+
+            assertThrows(IOException.class, () -> source.fetch(16));
+            assertEquals(1, server.getErrorCount());
+        }
+    }
+
+    @Test
+    public void testRateLimitRejectsExcessRequests() throws IOException {
+        QrngStandInServer.Behavior limited = new QrngStandInServer.Behavior(
+                QrngStandInServer.LatencyDistribution.FIXED, 0, 0, 0, 0, 2);
+        try (QrngStandInServer server = new QrngStandInServer(limited)) {
+            QrngApiSource source = new QrngApiSource(server.getApiUrl());
+            int failures = 0;
+            for (int i = 0; i < 5; i++) {
+                try {
+                    source.fetch(16);
+                } catch (IOException e) {
+                    failures++;
+                }
+            }
+
+            assertTrue(failures >= 2, "Запросы сверх лимита должны отклоняться");
+            assertEquals(failures, server.getRateLimitedCount());
+        }
+    }
+
+    @Test
+    public void testProviderSurvivesFlakyServer() throws IOException {
+        QrngStandInServer.Behavior flaky = new QrngStandInServer.Behavior(
+                QrngStandInServer.LatencyDistribution.UNIFORM, 5, 5, 0.3, 0.1, 0);
+        try (QrngStandInServer server = new QrngStandInServer(flaky)) {
+            RandomNumberProvider provider = new RandomNumberProvider(new QrngApiSource(server.getApiUrl()), 100);
+            try {
+                for (int i = 0; i < 10_000; i++) {
+                    int value = provider.getNextRandomNumber();
+                    assertTrue(value >= 0 && value <= 255);
+                }
+            } finally {
+                provider.shutdown();
+            }
+        }
+    }
+
+}